@@ -0,0 +1,81 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the public ChessGame API that the server calls per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+    // CPW perft position 6: a quiet middlegame with every piece type developed
+    private static final String MIDDLEGAME="r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+    // fool's mate
+    private static final String CHECKMATE="rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w - - 1 3";
+
+    private ChessGame middlegame;
+    private ChessGame checkmate;
+    private ChessMove move;
+
+    @Setup
+    public void setUp() {
+        middlegame=ChessGame.fromFen(MIDDLEGAME);
+        checkmate=ChessGame.fromFen(CHECKMATE);
+        // Nf3xe5
+        move=new ChessMove(new ChessPosition(3, 6), new ChessPosition(5, 5));
+    }
+
+    @Benchmark
+    public ChessGame makeMove() throws InvalidMoveException {
+        middlegame.makeMove(move);
+        middlegame.unmakeMove();
+        return middlegame;
+    }
+
+    @Benchmark
+    public void validMovesAllPieces(Blackhole blackhole) {
+        var board=middlegame.getBoard();
+        for (int row=1; row < 9; ++row) {
+            for (int col=1; col < 9; ++col) {
+                var position=new ChessPosition(row, col);
+                var piece=board.getPiece(position);
+                if (piece != null && piece.getTeamColor() == middlegame.getTeamTurn()) {
+                    blackhole.consume(middlegame.validMoves(position));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheckmateFalse() {
+        return middlegame.isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInCheckmateTrue() {
+        return checkmate.isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public ChessGame.GameStatus statusOngoing() {
+        middlegame.setTeamTurn(ChessGame.TeamColor.WHITE);
+        return middlegame.status();
+    }
+
+    @Benchmark
+    public ChessGame.GameStatus statusCheckmate() {
+        checkmate.setTeamTurn(ChessGame.TeamColor.WHITE);
+        return checkmate.status();
+    }
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import dataaccess.DataAccessException;
+import dataaccess.MemoryDAO;
+import models.AuthToken;
+import models.Game;
+import models.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemoryDAO under concurrent requests, the way Spark's request threads use it:
+ * readers alone, and readers alongside a thread writing game updates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class MemoryDAOBenchmark {
+    @Param({"100"})
+    public int gameCount;
+
+    private MemoryDAO dao;
+    private AuthToken authToken;
+    private List<Game> games;
+
+    @Setup
+    public void setUp() throws DataAccessException {
+        dao=new MemoryDAO();
+        authToken=dao.insertUser(new User("bench", "password", "bench@mail.com"));
+        for (int i=0; i < gameCount; ++i) {
+            dao.createGame(authToken, new Game("game " + i));
+        }
+        games=dao.listGames(authToken);
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        int next;
+    }
+
+    @Benchmark
+    public AuthToken verifyAuthToken() throws DataAccessException {
+        return dao.verifyAuthToken(authToken);
+    }
+
+    @Benchmark
+    public List<Game> listGames() throws DataAccessException {
+        return dao.listGames(authToken);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public List<Game> mixedListGames() throws DataAccessException {
+        return dao.listGames(authToken);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void mixedUpdateGame(Writer writer) throws DataAccessException {
+        var game=games.get(writer.next++ % games.size());
+        dao.updateGame(authToken, new Game(game.gameID(), null, null, null, game.game()));
+    }
+}
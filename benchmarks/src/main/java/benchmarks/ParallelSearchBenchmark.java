@@ -0,0 +1,64 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ParallelSearch;
+import chess.Perft;
+import chess.Search;
+import chess.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall time of one fixed-depth search by thread count. The speedup for N threads
+ * is the 1 thread score over the N thread score; it can't exceed the number of
+ * cores the benchmark runs on. The table is cleared before each search so every
+ * op starts cold.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelSearchBenchmark {
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"middlegame", "kiwipete"})
+    public String position;
+
+    @Param({"6"})
+    public int depth;
+
+    @Param({"64"})
+    public int tableMegabytes;
+
+    private ChessGame game;
+    private ParallelSearch search;
+
+    @Setup
+    public void setUp() {
+        var reference=Perft.REFERENCE_POSITIONS.stream()
+                .filter(r -> r.name().equals(position))
+                .findFirst()
+                .orElseThrow();
+        game=ChessGame.fromFen(reference.fen());
+        search=new ParallelSearch(threads, new TranspositionTable(tableMegabytes));
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        search.getTable().clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        search.close();
+    }
+
+    @Benchmark
+    public Search.Result search() {
+        return search.search(game, Search.Limits.depth(depth));
+    }
+}
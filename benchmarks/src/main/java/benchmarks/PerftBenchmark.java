@@ -0,0 +1,51 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation throughput over the perft reference positions. The nodes
+ * counter is reported per second, i.e. as nodes per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Thread)
+public class PerftBenchmark {
+    @Param({"initial", "endgame", "middlegame", "promotions", "kiwipete"})
+    public String position;
+
+    @Param({"3"})
+    public int depth;
+
+    private Perft perft;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void setUp() {
+        var reference=Perft.REFERENCE_POSITIONS.stream()
+                .filter(r -> r.name().equals(position))
+                .findFirst()
+                .orElseThrow();
+        // not every position lists counts this deep, so cap at what is published
+        depth=Math.min(depth, reference.nodes().length);
+        perft=new Perft(ChessGame.fromFen(reference.fen()), depth);
+    }
+
+    @Benchmark
+    public long perft(Nodes nodes) {
+        var count=perft.count(depth);
+        nodes.nodes+=count;
+        return count;
+    }
+}
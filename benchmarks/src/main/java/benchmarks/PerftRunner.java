@@ -0,0 +1,58 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+
+/**
+ * Command line perft driver.
+ * <p>
+ * With no arguments, runs every reference position and compares the counts to
+ * the published values. With a FEN and a depth, prints the divide output for
+ * that position: the leaf count under each root move, then the total.
+ */
+public class PerftRunner {
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.exit(verifyReferences() ? 0 : 1);
+        }
+        if (args.length != 2) {
+            System.out.println("Expected: [\"<fen>\" <depth>]");
+            System.exit(2);
+        }
+        divide(args[0], Integer.parseInt(args[1]));
+    }
+
+    private static boolean verifyReferences() {
+        var allMatch=true;
+        for (var reference : Perft.REFERENCE_POSITIONS) {
+            for (int depth=1; depth <= reference.nodes().length; ++depth) {
+                var expected=reference.nodes()[depth - 1];
+                var start=System.nanoTime();
+                var nodes=Perft.perft(ChessGame.fromFen(reference.fen()), depth);
+                var elapsed=System.nanoTime() - start;
+                var matches=nodes == expected;
+                allMatch&=matches;
+                System.out.printf("%-12s depth %d: %,12d %s (%,.0f nodes/s)%n",
+                        reference.name(), depth, nodes,
+                        matches ? "ok" : "expected " + expected,
+                        nodes * 1e9 / Math.max(elapsed, 1));
+            }
+        }
+        return allMatch;
+    }
+
+    private static void divide(String fen, int depth) {
+        var perft=new Perft(ChessGame.fromFen(fen), depth);
+        var start=System.nanoTime();
+        var divide=perft.divide(depth);
+        var elapsed=System.nanoTime() - start;
+
+        long total=0;
+        for (var entry : divide.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            total+=entry.getValue();
+        }
+        System.out.printf("%nMoves: %d%nNodes: %d%nNodes/s: %,.0f%n",
+                divide.size(), total, total * 1e9 / Math.max(elapsed, 1));
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+import chess.Search;
+import chess.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-depth searches over the perft reference positions. The score is bot
+ * moves per second at that depth, and the nodes counter is reported per second,
+ * i.e. as search nodes per second. The transposition table is cleared before
+ * each search so every op starts cold.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+    @Param({"initial", "middlegame", "kiwipete"})
+    public String position;
+
+    @Param({"5"})
+    public int depth;
+
+    @Param({"16"})
+    public int tableMegabytes;
+
+    private Search search;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void setUp() {
+        var reference=Perft.REFERENCE_POSITIONS.stream()
+                .filter(r -> r.name().equals(position))
+                .findFirst()
+                .orElseThrow();
+        search=new Search(ChessGame.fromFen(reference.fen()), new TranspositionTable(tableMegabytes));
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        search.getTable().clear();
+    }
+
+    @Benchmark
+    public Search.Result search(Nodes nodes) {
+        var result=search.search(Search.Limits.depth(depth));
+        nodes.nodes+=result.nodes();
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.GameCodec;
+import com.google.gson.Gson;
+import models.GameInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning games into storage and wire formats.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+    private ChessBoard board;
+    private String serializedBoard;
+    private ChessGame game;
+    private byte[] encodedGame;
+
+    @State(Scope.Thread)
+    public static class GameList {
+        @Param({"10", "1000"})
+        public int gameCount;
+
+        List<GameInfo> gameInfos;
+        Gson gson;
+
+        @Setup
+        public void setUp() {
+            gameInfos=new ArrayList<>();
+            for (int i=0; i < gameCount; ++i) {
+                gameInfos.add(new GameInfo(1000 + i, "white" + i, i % 2 == 0 ? null : "black" + i, "game " + i));
+            }
+            gson=new Gson();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        board=new ChessBoard();
+        board.resetBoard();
+        serializedBoard=board.serialize();
+        game=new ChessGame();
+        game.setBoard(board);
+        encodedGame=GameCodec.encode(game);
+    }
+
+    @Benchmark
+    public String boardSerialize() {
+        return board.serialize();
+    }
+
+    @Benchmark
+    public ChessBoard boardDeserialize() {
+        return ChessBoard.deserialize(serializedBoard);
+    }
+
+    @Benchmark
+    public byte[] gameEncode() {
+        return GameCodec.encode(game);
+    }
+
+    @Benchmark
+    public ChessGame gameDecode() {
+        return GameCodec.decode(encodedGame);
+    }
+
+    /**
+     * What Server.listGames does today: a new Gson per response
+     */
+    @Benchmark
+    public String listGamesNewGson(GameList list) {
+        return new Gson().toJson(Collections.singletonMap("games", list.gameInfos));
+    }
+
+    @Benchmark
+    public String listGamesSharedGson(GameList list) {
+        return list.gson.toJson(Collections.singletonMap("games", list.gameInfos));
+    }
+}
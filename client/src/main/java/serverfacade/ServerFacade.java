@@ -4,6 +4,9 @@ import com.google.gson.Gson;
 import models.AuthToken;
 import models.Game;
 import models.GameInfo;
+import models.GamePage;
+import models.GameQuery;
+import models.Hint;
 import models.User;
 import ui.ClientException;
 
@@ -59,6 +62,24 @@ public class ServerFacade {
     return games.games().stream().map(GameInfo::toGame).toList();
   }
 
+  public GamePage listGames(AuthToken authToken, GameQuery query) throws ClientException {
+    var path=new StringBuilder("game?limit=").append(query.limit());
+    if (query.after() > 0) {
+      path.append("&after=").append(query.after());
+    }
+    if (query.openSeats()) {
+      path.append("&openSeats=true");
+    }
+    if (query.player() != null) {
+      path.append("&player=").append(URLEncoder.encode(query.player(), StandardCharsets.UTF_8));
+    }
+    if (query.namePrefix() != null) {
+      path.append("&namePrefix=").append(URLEncoder.encode(query.namePrefix(), StandardCharsets.UTF_8));
+    }
+    var page=makeRequest("GET", path.toString(), null, GamePage.class, authToken);
+    return page == null ? new GamePage(List.of(), null) : page;
+  }
+
   public Game createGame(AuthToken authToken, String gameName) throws ClientException {
     return makeRequest("POST", "game", new Game(gameName), Game.class, authToken);
   }
@@ -67,6 +88,10 @@ public class ServerFacade {
     makeRequest("PUT", "game", new JoinGameRequest(gameID, playerColor), null, authToken);
   }
 
+  public Hint hint(AuthToken authToken, int gameID) throws ClientException {
+    return makeRequest("GET", "game/" + gameID + "/hint", null, Hint.class, authToken);
+  }
+
   private <T> T makeRequest(String method, String path, Object request, Class<T> responseClass, AuthToken authToken) throws ClientException {
     try {
       var connection=getConnection(path);
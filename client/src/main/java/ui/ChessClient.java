@@ -52,6 +52,7 @@ public class ChessClient {
       case "leave" -> leave();
       case "move" -> move(params);
       case "highlight" -> highlight(params);
+      case "hint" -> hint();
       case "quit" -> quit();
       case "info" -> info();
       default -> "Unknown command. Type 'help' to see all commands.";
@@ -250,7 +251,7 @@ public class ChessClient {
         throw new ClientException(400, "Expected: <[a-h]><[1-8]> <[a-h]><[1-8]>");
       }
 
-      positions[index++]=new ChessPosition(rank - 48, file - 96);
+      positions[index++]=ChessPosition.of(rank - 48, file - 96);
     }
 
     try {
@@ -263,6 +264,10 @@ public class ChessClient {
       var move=new ChessMove(positions[0], positions[1]);
 
       currentGame.makeMove(move);
+      var status=currentGame.status();
+      if (status != ChessGame.GameStatus.ONGOING) {
+        return "Successfully moved! " + status;
+      }
       return "Successfully moved!";
     } catch (InvalidMoveException ex) {
       var message= !ex.getMessage().isEmpty() ? ex.getMessage() : "Invalid move!";
@@ -284,7 +289,7 @@ public class ChessClient {
       throw new ClientException(400, "Expected: <[a-h]><[1-8]> <[a-h]><[1-8]>");
     }
 
-    var position=new ChessPosition(rank - 48, file - 96);
+    var position=ChessPosition.of(rank - 48, file - 96);
 
     var piece=currentGame.getBoard().getPiece(position);
     if (piece == null) {
@@ -294,6 +299,16 @@ public class ChessClient {
     return displayBoard(currentGame.getBoard(), teamColor, position);
   }
 
+  private String hint() throws ClientException {
+    assertInGameOrObserving();
+
+    var hint=server.hint(authToken, gameID);
+    if (hint.move() == null) {
+      return "The game is over!";
+    }
+    return "Try " + hint.move() + " (score " + hint.score() + ", depth " + hint.depth() + ")";
+  }
+
   private String redraw() throws ClientException {
     assertInGameOrObserving();
 
@@ -385,10 +400,10 @@ public class ChessClient {
       ChessPosition pos;
 
       if (perspective != ChessGame.TeamColor.BLACK) {
-        pos=new ChessPosition(8 - (y - 1), x);
+        pos=ChessPosition.of(8 - (y - 1), x);
       }
       else {
-        pos=new ChessPosition(y, 8- (x - 1));
+        pos=ChessPosition.of(y, 8- (x - 1));
       }
 
       if (highlightedPos.contains(pos)) {
@@ -441,12 +456,14 @@ public class ChessClient {
               - move <file><rank> <file><rank>
               - resign
               - highlight <file><rank>
+              - hint
               """;
       case OBSERVING -> """
               - help
               - redraw
               - leave
               - highlight <file><rank>
+              - hint
               """;
       default -> "Unknown state";
     };
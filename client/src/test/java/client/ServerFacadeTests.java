@@ -1,6 +1,7 @@
 package client;
 
 import models.AuthToken;
+import models.GameQuery;
 import models.User;
 import org.junit.jupiter.api.*;
 import server.Server;
@@ -110,6 +111,23 @@ public class ServerFacadeTests {
         assertEquals(games.getFirst().gameID(), game.gameID());
     }
 
+    @Test
+    void listGamesPaged() {
+        var authToken=assertDoesNotThrow(() -> facade.registerUser(user));
+        for (var i=0; i < 3; ++i) {
+            var name="game " + i;
+            assertDoesNotThrow(() -> facade.createGame(authToken, name));
+        }
+
+        var first=assertDoesNotThrow(() -> facade.listGames(authToken, new GameQuery(2, 0, false, null, "game ")));
+        assertEquals(2, first.games().size());
+        assertNotNull(first.next());
+
+        var second=assertDoesNotThrow(() -> facade.listGames(authToken, new GameQuery(2, first.next(), false, null, "game ")));
+        assertEquals(1, second.games().size());
+        assertNull(second.next());
+    }
+
     @Test
     void listGamesUnauthorized() {
         var authToken=new AuthToken("user");
@@ -153,4 +171,21 @@ public class ServerFacadeTests {
         var game=assertDoesNotThrow(() -> facade.createGame(authToken, "game"));
         assertDoesNotThrow(() -> facade.joinGame(authToken, game.gameID(), "OBSERVER"));
     }
+
+    @Test
+    void hintSuccess() {
+        var authToken=assertDoesNotThrow(() -> facade.registerUser(user));
+        var game=assertDoesNotThrow(() -> facade.createGame(authToken, "game"));
+        var hint=assertDoesNotThrow(() -> facade.hint(authToken, game.gameID()));
+        assertNotNull(hint.move());
+        assertTrue(hint.depth() > 0);
+    }
+
+    @Test
+    void hintUnauthorized() {
+        var authToken=assertDoesNotThrow(() -> facade.registerUser(user));
+        var game=assertDoesNotThrow(() -> facade.createGame(authToken, "game"));
+        var ex=assertThrows(ClientException.class, () -> facade.hint(new AuthToken("user"), game.gameID()));
+        assertEquals("Error: unauthorized", ex.getMessage());
+    }
 }
@@ -0,0 +1,145 @@
+package dataaccess;
+
+import models.AuthToken;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of verified auth tokens, so authenticated requests can skip the authTokens lookup.
+ * <p>
+ * Entries expire a fixed time after they were cached, and the least recently used entry is dropped once the
+ * cache is full. Only valid tokens are cached; logging out must invalidate the token, and a token deleted
+ * from the database some other way stays usable until its entry expires.
+ * <p>
+ * A lookup that misses the cache can read the token from the database just before a logout deletes it. To keep
+ * such a lookup from caching the dead token afterwards, every invalidation bumps a generation counter, and a
+ * token read from the database is only cached if no invalidation happened since the lookup began.
+ */
+public class AuthTokenCache {
+  private final int maxSize;
+  private final long ttlMillis;
+  private final LongSupplier clock;
+  private final LinkedHashMap<String, Entry> entries;
+  // bumped by every invalidate and clear; guarded by entries
+  private long generation;
+  private final LongAdder hits=new LongAdder();
+  private final LongAdder misses=new LongAdder();
+
+  private record Entry(AuthToken authToken, long expiresAt) {
+  }
+
+  /**
+   * @param maxSize   most tokens kept
+   * @param ttlMillis how long a token is trusted without checking the database again
+   */
+  public AuthTokenCache(int maxSize, long ttlMillis) {
+    this(maxSize, ttlMillis, System::currentTimeMillis);
+  }
+
+  AuthTokenCache(int maxSize, long ttlMillis, LongSupplier clock) {
+    this.maxSize=maxSize;
+    this.ttlMillis=ttlMillis;
+    this.clock=clock;
+    this.entries=new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > AuthTokenCache.this.maxSize;
+      }
+    };
+  }
+
+  /**
+   * @param authToken Token to look up
+   * @return the cached full auth token, or null if it isn't cached or has expired
+   */
+  public AuthToken get(String authToken) {
+    Entry entry;
+    synchronized (entries) {
+      entry=entries.get(authToken);
+      if (entry != null && entry.expiresAt() - clock.getAsLong() <= 0) {
+        entries.remove(authToken);
+        entry=null;
+      }
+    }
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.authToken();
+  }
+
+  /**
+   * @return the current generation, to be read before looking a token up in the database and passed to put
+   */
+  public long generation() {
+    synchronized (entries) {
+      return generation;
+    }
+  }
+
+  /**
+   * @param authToken Token just issued, including its username
+   */
+  public void put(AuthToken authToken) {
+    if (maxSize <= 0) {
+      return;
+    }
+    var entry=new Entry(authToken, clock.getAsLong() + ttlMillis);
+    synchronized (entries) {
+      entries.put(authToken.authToken(), entry);
+    }
+  }
+
+  /**
+   * Caches a token read from the database, unless a token was invalidated since the read began
+   *
+   * @param authToken  Verified token, including its username
+   * @param generation Generation read before the database lookup
+   * @return True if the token was cached
+   */
+  public boolean put(AuthToken authToken, long generation) {
+    if (maxSize <= 0) {
+      return false;
+    }
+    var entry=new Entry(authToken, clock.getAsLong() + ttlMillis);
+    synchronized (entries) {
+      if (generation != this.generation) {
+        return false;
+      }
+      entries.put(authToken.authToken(), entry);
+      return true;
+    }
+  }
+
+  public void invalidate(String authToken) {
+    synchronized (entries) {
+      entries.remove(authToken);
+      ++generation;
+    }
+  }
+
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+      ++generation;
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public long hits() {
+    return hits.sum();
+  }
+
+  public long misses() {
+    return misses.sum();
+  }
+}
@@ -0,0 +1,454 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of JDBC connections.
+ * <p>
+ * Borrowed connections are proxies: closing one hands the physical connection back to the pool instead of
+ * closing it, so callers keep using try-with-resources exactly as they would with DriverManager. Idle
+ * connections are validated before being handed out, idle connections past the idle timeout are closed down
+ * to the minimum size, and connections held longer than the leak threshold are reported with the stack trace
+ * of the code that borrowed them. Capturing that trace costs a stack walk per borrow, so leak detection is
+ * meant to be switched on while debugging rather than left on.
+ * <p>
+ * Each pooled connection also keeps a small LRU cache of prepared statements keyed by SQL text, so the
+ * statement a DAO method prepares on every call is only parsed and prepared by the server once per
+ * connection. Closing a cached statement clears its parameters and leaves it open for the next caller.
+ */
+public class ConnectionPool implements AutoCloseable {
+  // connections used this recently are assumed alive and skip the validation round trip
+  private static final long VALIDATION_BYPASS_MILLIS=500;
+  private static final int VALIDATION_TIMEOUT_SECONDS=2;
+
+  private final ConnectionFactory factory;
+  private final Config config;
+  private final Semaphore permits;
+  // most recently returned first, so the warmest connections get reused
+  private final ConcurrentLinkedDeque<PooledConnection> idle=new ConcurrentLinkedDeque<>();
+  private final Set<PooledConnection> leased=ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService housekeeper;
+  private volatile boolean closed;
+
+  /**
+   * Pool settings
+   *
+   * @param minSize             connections kept open even when idle
+   * @param maxSize             most connections open at once; borrowers wait beyond this
+   * @param idleTimeoutMillis   idle connections above minSize are closed after this long
+   * @param borrowTimeoutMillis how long a borrower waits for a free connection before failing
+   * @param leakThresholdMillis a connection held longer than this is reported as leaked, 0 to disable and skip
+   *                            capturing a stack trace on every borrow
+   * @param statementCacheSize  prepared statements kept open per connection, 0 to disable
+   */
+  public record Config(int minSize, int maxSize, long idleTimeoutMillis, long borrowTimeoutMillis,
+                       long leakThresholdMillis, int statementCacheSize) {
+  }
+
+  /**
+   * Opens a new physical connection
+   */
+  interface ConnectionFactory {
+    Connection create() throws SQLException;
+  }
+
+  ConnectionPool(ConnectionFactory factory, Config config) {
+    this.factory=factory;
+    this.config=config;
+    this.permits=new Semaphore(config.maxSize(), true);
+    this.housekeeper=Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread=new Thread(runnable, "connection-pool-housekeeper");
+      thread.setDaemon(true);
+      return thread;
+    });
+    var period=Math.max(1000, Math.min(config.idleTimeoutMillis(), 30_000) / 2);
+    housekeeper.scheduleAtFixedRate(this::houseKeep, 0, period, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Borrow a connection. Close it to give it back.
+   *
+   * @return a validated connection
+   * @throws DataAccessException if no connection frees up within the borrow timeout or one can't be opened
+   */
+  public Connection getConnection() throws DataAccessException {
+    if (closed) {
+      throw new DataAccessException("connection pool closed");
+    }
+    try {
+      if (!permits.tryAcquire(config.borrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+        throw new DataAccessException("timed out waiting for a database connection");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new DataAccessException("interrupted waiting for a database connection");
+    }
+
+    try {
+      PooledConnection pooled;
+      while ((pooled=idle.pollFirst()) != null && !isValid(pooled)) {
+        discard(pooled);
+      }
+      if (pooled == null) {
+        pooled=new PooledConnection(factory.create());
+      }
+      pooled.borrowedAt=System.currentTimeMillis();
+      pooled.borrower=config.leakThresholdMillis() > 0 ? new Throwable("connection borrowed here") : null;
+      pooled.leakReported=false;
+      leased.add(pooled);
+      return pooled.newHandle();
+    } catch (SQLException ex) {
+      permits.release();
+      throw new DataAccessException(ex.getMessage());
+    }
+  }
+
+  /**
+   * @return connections currently borrowed
+   */
+  public int activeCount() {
+    return leased.size();
+  }
+
+  /**
+   * @return open connections waiting to be borrowed
+   */
+  public int idleCount() {
+    return idle.size();
+  }
+
+  @Override
+  public void close() {
+    closed=true;
+    housekeeper.shutdownNow();
+    PooledConnection pooled;
+    while ((pooled=idle.pollFirst()) != null) {
+      discard(pooled);
+    }
+  }
+
+  private boolean isValid(PooledConnection pooled) {
+    if (System.currentTimeMillis() - pooled.lastUsed < VALIDATION_BYPASS_MILLIS) {
+      return true;
+    }
+    try {
+      return pooled.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+    } catch (SQLException ex) {
+      return false;
+    }
+  }
+
+  private void release(PooledConnection pooled) {
+    leased.remove(pooled);
+    pooled.closeStatementsInUse();
+    try {
+      if (closed) {
+        discard(pooled);
+        return;
+      }
+      try {
+        if (!pooled.connection.getAutoCommit()) {
+          pooled.connection.rollback();
+          pooled.connection.setAutoCommit(true);
+        }
+      } catch (SQLException ex) {
+        discard(pooled);
+        return;
+      }
+      pooled.lastUsed=System.currentTimeMillis();
+      idle.offerFirst(pooled);
+    } finally {
+      permits.release();
+    }
+  }
+
+  private void discard(PooledConnection pooled) {
+    try {
+      pooled.connection.close();
+    } catch (SQLException ignored) {
+    }
+  }
+
+  private void houseKeep() {
+    var now=System.currentTimeMillis();
+
+    // oldest idle connections are at the tail
+    while (idle.size() + leased.size() > config.minSize()) {
+      var oldest=idle.peekLast();
+      if (oldest == null || now - oldest.lastUsed < config.idleTimeoutMillis() || !idle.remove(oldest)) {
+        break;
+      }
+      discard(oldest);
+    }
+
+    while (!closed && idle.size() + leased.size() < config.minSize()) {
+      try {
+        var pooled=new PooledConnection(factory.create());
+        pooled.lastUsed=now;
+        idle.offerLast(pooled);
+      } catch (SQLException ex) {
+        System.out.println("Unable to open pooled connection: " + ex.getMessage());
+        break;
+      }
+    }
+
+    if (config.leakThresholdMillis() > 0) {
+      for (var pooled : leased) {
+        if (!pooled.leakReported && now - pooled.borrowedAt > config.leakThresholdMillis()) {
+          pooled.leakReported=true;
+          System.out.println("Possible connection leak: held for " + (now - pooled.borrowedAt) + "ms");
+          if (pooled.borrower != null) {
+            pooled.borrower.printStackTrace(System.out);
+          }
+        }
+      }
+    }
+  }
+
+  private class PooledConnection {
+    final Connection connection;
+    volatile long lastUsed;
+    volatile long borrowedAt;
+    volatile Throwable borrower;
+    volatile boolean leakReported;
+
+    // only touched by the thread currently borrowing the connection
+    final LinkedHashMap<StatementKey, CachedStatement> statements=new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<StatementKey, CachedStatement> eldest) {
+        if (size() <= config.statementCacheSize()) {
+          return false;
+        }
+        eldest.getValue().evict();
+        return true;
+      }
+    };
+
+    PooledConnection(Connection connection) {
+      this.connection=connection;
+    }
+
+    PreparedStatement prepareStatement(Connection handle, String sql, int autoGeneratedKeys) throws SQLException {
+      if (config.statementCacheSize() <= 0) {
+        return connection.prepareStatement(sql, autoGeneratedKeys);
+      }
+      var key=new StatementKey(sql, autoGeneratedKeys);
+      var cached=statements.get(key);
+      if (cached == null) {
+        cached=new CachedStatement(this, key, connection.prepareStatement(sql, autoGeneratedKeys));
+        statements.put(key, cached);
+      }
+      else if (cached.inUse) {
+        // the same SQL prepared twice before the first was closed; don't share it
+        return connection.prepareStatement(sql, autoGeneratedKeys);
+      }
+      cached.inUse=true;
+      return cached.newHandle(handle);
+    }
+
+    // statements a caller forgot to close can't be handed to the next borrower mid-use
+    void closeStatementsInUse() {
+      statements.values().removeIf(cached -> {
+        if (cached.inUse) {
+          cached.evicted=true;
+          cached.closeQuietly();
+          return true;
+        }
+        return false;
+      });
+    }
+
+    Connection newHandle() {
+      return (Connection) Proxy.newProxyInstance(
+              Connection.class.getClassLoader(),
+              new Class<?>[]{Connection.class},
+              new Handle(this)
+      );
+    }
+  }
+
+  private record StatementKey(String sql, int autoGeneratedKeys) {
+  }
+
+  private static class CachedStatement {
+    final PooledConnection owner;
+    final StatementKey key;
+    final PreparedStatement statement;
+    boolean inUse;
+    boolean evicted;
+
+    CachedStatement(PooledConnection owner, StatementKey key, PreparedStatement statement) {
+      this.owner=owner;
+      this.key=key;
+      this.statement=statement;
+    }
+
+    PreparedStatement newHandle(Connection connection) {
+      return (PreparedStatement) Proxy.newProxyInstance(
+              PreparedStatement.class.getClassLoader(),
+              new Class<?>[]{PreparedStatement.class},
+              new StatementHandle(this, connection)
+      );
+    }
+
+    void evict() {
+      evicted=true;
+      if (!inUse) {
+        closeQuietly();
+      }
+    }
+
+    void release() {
+      inUse=false;
+      if (evicted) {
+        closeQuietly();
+        return;
+      }
+      try {
+        statement.clearParameters();
+      } catch (SQLException ex) {
+        owner.statements.remove(key, this);
+        evicted=true;
+        closeQuietly();
+      }
+    }
+
+    void closeQuietly() {
+      try {
+        statement.close();
+      } catch (SQLException ignored) {
+      }
+    }
+  }
+
+  /**
+   * One use of a cached statement, closed back into the cache
+   */
+  private static class StatementHandle implements InvocationHandler {
+    private final CachedStatement cached;
+    private final Connection connection;
+    private boolean closed;
+
+    StatementHandle(CachedStatement cached, Connection connection) {
+      this.cached=cached;
+      this.connection=connection;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "close" -> {
+          if (!closed) {
+            closed=true;
+            cached.release();
+          }
+          return null;
+        }
+        case "isClosed" -> {
+          return closed;
+        }
+        case "getConnection" -> {
+          return connection;
+        }
+        case "equals" -> {
+          return proxy == args[0];
+        }
+        case "hashCode" -> {
+          return System.identityHashCode(proxy);
+        }
+        case "toString" -> {
+          return "Cached " + cached.statement;
+        }
+        default -> {
+        }
+      }
+
+      if (closed) {
+        throw new SQLException("Statement is closed");
+      }
+      try {
+        return method.invoke(cached.statement, args);
+      } catch (InvocationTargetException ex) {
+        throw ex.getCause();
+      }
+    }
+  }
+
+  /**
+   * One borrow of a pooled connection. Once closed it refuses further use, so a caller that holds on to a
+   * returned connection can't interfere with the next borrower.
+   */
+  private class Handle implements InvocationHandler {
+    private final PooledConnection pooled;
+    private boolean closed;
+
+    Handle(PooledConnection pooled) {
+      this.pooled=pooled;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "close" -> {
+          if (!closed) {
+            closed=true;
+            release(pooled);
+          }
+          return null;
+        }
+        case "isClosed" -> {
+          return closed;
+        }
+        case "equals" -> {
+          return proxy == args[0];
+        }
+        case "hashCode" -> {
+          return System.identityHashCode(proxy);
+        }
+        case "toString" -> {
+          return "Pooled " + pooled.connection;
+        }
+        default -> {
+        }
+      }
+
+      if (closed) {
+        throw new SQLException("Connection is closed");
+      }
+      if (isCacheablePrepare(method)) {
+        var autoGeneratedKeys=args.length == 1 ? Statement.NO_GENERATED_KEYS : (int) args[1];
+        return pooled.prepareStatement((Connection) proxy, (String) args[0], autoGeneratedKeys);
+      }
+      try {
+        return method.invoke(pooled.connection, args);
+      } catch (InvocationTargetException ex) {
+        throw ex.getCause();
+      }
+    }
+
+    // prepareStatement(String) and prepareStatement(String, int autoGeneratedKeys)
+    private static boolean isCacheablePrepare(Method method) {
+      if (!method.getName().equals("prepareStatement")) {
+        return false;
+      }
+      var types=method.getParameterTypes();
+      return types.length == 1 || (types.length == 2 && types[1] == int.class);
+    }
+  }
+}
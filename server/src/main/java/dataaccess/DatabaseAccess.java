@@ -2,6 +2,9 @@ package dataaccess;
 
 import models.AuthToken;
 import models.Game;
+import models.GameInfo;
+import models.GamePage;
+import models.GameQuery;
 import models.User;
 
 import java.util.List;
@@ -49,6 +52,27 @@ public interface DatabaseAccess {
    */
   List<Game> listGames(AuthToken authToken) throws DataAccessException;
 
+  /**
+   * List the ID, players and name of all games, without loading their boards
+   *
+   * @param authToken Auth token of a registered user
+   * @return List of all games' info
+   * @throws DataAccessException
+   */
+  default List<GameInfo> listGameInfos(AuthToken authToken) throws DataAccessException {
+    return listGameInfos(authToken, GameQuery.ALL).games();
+  }
+
+  /**
+   * List one page of games' info, filtered and in ID order
+   *
+   * @param authToken Auth token of a registered user
+   * @param query     Filters, page size and cursor
+   * @return The matching games after the cursor, and the cursor for the next page
+   * @throws DataAccessException
+   */
+  GamePage listGameInfos(AuthToken authToken, GameQuery query) throws DataAccessException;
+
   /**
    * Creates a new game
    *
@@ -64,7 +88,7 @@ public interface DatabaseAccess {
    *
    * @param authToken Auth token of a user to join
    * @param game      Game to join (game id required)
-   * @throws DataAccessException
+   * @throws DataAccessException "already taken" if the seat is filled, "bad request" if there's no such game
    */
   void joinGame(AuthToken authToken, Game game) throws DataAccessException;
 
@@ -77,7 +101,23 @@ public interface DatabaseAccess {
    */
   AuthToken verifyAuthToken(AuthToken authToken) throws DataAccessException;
 
+  /**
+   * Replace the chess game of a stored game. If the game carries a version, the update only applies if the
+   * stored game is still at that version
+   *
+   * @param authToken Auth token of the user making the update
+   * @param game      Game to update (game id and chess game required)
+   * @throws DataAccessException "conflict" if the game was updated since the given version was read
+   */
   void updateGame(AuthToken authToken, Game game) throws DataAccessException;
 
+  /**
+   * Get a single game, including its current version
+   *
+   * @param authToken Auth token of the user asking
+   * @param gameID    ID of the game
+   * @return the game
+   * @throws DataAccessException
+   */
   Game getGame(AuthToken authToken, int gameID) throws DataAccessException;
 }
@@ -3,24 +3,75 @@ package dataaccess;
 import chess.ChessGame;
 import models.AuthToken;
 import models.Game;
+import models.GameInfo;
+import models.GamePage;
+import models.GameQuery;
 import models.User;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory store, safe to share between request threads.
+ * <p>
+ * Single-key operations rely on the concurrent maps. Read-check-write updates of a game hold the lock stripe
+ * for its ID, so two players can't both take the same seat. Games are kept sorted by ID so a page of a
+ * listing starts at its cursor instead of scanning every game.
+ * <p>
+ * ChessGame is mutable, so the store keeps its own copy of every board: games are copied on the way in and on
+ * the way out, and no request ever holds an instance another request can see.
+ */
 public class MemoryDAO implements DatabaseAccess {
-  private static MemoryDAO instance;
-  int gameID=1000;
-  HashMap<Integer, Game> games=new HashMap<>();
-  HashMap<String, User> users=new HashMap<>();
-  HashMap<String, AuthToken> authTokens=new HashMap<>();
+  // power of two so a game ID can be masked to its stripe
+  private static final int LOCK_STRIPES=64;
+
+  final AtomicInteger gameID=new AtomicInteger(1000);
+  final ConcurrentSkipListMap<Integer, Game> games=new ConcurrentSkipListMap<>();
+  final ConcurrentHashMap<String, User> users=new ConcurrentHashMap<>();
+  final ConcurrentHashMap<String, AuthToken> authTokens=new ConcurrentHashMap<>();
+  private final Object[] gameLocks=new Object[LOCK_STRIPES];
+
+  public MemoryDAO() {
+    for (var i=0; i < LOCK_STRIPES; i++) {
+      gameLocks[i]=new Object();
+    }
+  }
+
+  private static class InstanceHolder {
+    private static final MemoryDAO INSTANCE=new MemoryDAO();
+  }
 
   public static DatabaseAccess getInstance() throws DataAccessException {
-    if (instance == null) {
-      instance=new MemoryDAO();
+    return InstanceHolder.INSTANCE;
+  }
+
+  private Object lockFor(int gameID) {
+    return gameLocks[gameID & (LOCK_STRIPES - 1)];
+  }
+
+  /**
+   * @return the game with its ChessGame replaced by an independent copy
+   */
+  private static Game copyOf(Game game) {
+    if (game.game() == null) {
+      return game;
     }
-    return instance;
+    return new Game(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(), game.game().copy(),
+      game.version());
+  }
+
+  private AuthToken authenticatedUser(AuthToken authToken) throws DataAccessException {
+    if (authToken == null) {
+      throw new DataAccessException("unauthorized");
+    }
+    var verifiedAuthToken=authTokens.get(authToken.authToken());
+    if (verifiedAuthToken == null) {
+      throw new DataAccessException("unauthorized");
+    }
+    return verifiedAuthToken;
   }
 
   @Override
@@ -39,13 +90,10 @@ public class MemoryDAO implements DatabaseAccess {
     if (newUser.password() == null || newUser.username() == null || newUser.email() == null) {
       throw new DataAccessException("bad request");
     }
-    var userToInsert=users.get(newUser.username());
-    if (userToInsert != null) {
+    if (users.putIfAbsent(newUser.username(), newUser) != null) {
       throw new DataAccessException("already taken");
     }
 
-    users.put(newUser.username(), newUser);
-
     return loginUser(newUser);
   }
 
@@ -76,11 +124,9 @@ public class MemoryDAO implements DatabaseAccess {
       throw new DataAccessException("unauthorized");
     }
 
-    var verifiedAuthToken=authTokens.get(authToken.authToken());
-    if (verifiedAuthToken == null) {
+    if (authTokens.remove(authToken.authToken()) == null) {
       throw new DataAccessException("unauthorized");
     }
-    authTokens.remove(verifiedAuthToken.authToken());
   }
 
   @Override
@@ -93,7 +139,33 @@ public class MemoryDAO implements DatabaseAccess {
     if (verifiedAuthToken == null) {
       throw new DataAccessException("unauthorized");
     }
-    return new ArrayList<>(games.values());
+    var copies=new ArrayList<Game>(games.size());
+    for (var game : games.values()) {
+      copies.add(copyOf(game));
+    }
+    return copies;
+  }
+
+  @Override
+  public GamePage listGameInfos(AuthToken authToken, GameQuery query) throws DataAccessException {
+    authenticatedUser(authToken);
+    if (query == null) {
+      throw new DataAccessException("bad request");
+    }
+
+    var gameInfos=new ArrayList<GameInfo>();
+    for (var game : games.tailMap(query.after(), false).values()) {
+      var gameInfo=GameInfo.fromGame(game);
+      if (!query.matches(gameInfo)) {
+        continue;
+      }
+      gameInfos.add(gameInfo);
+      // one past the limit tells whether there's a next page
+      if (query.limit() > 0 && gameInfos.size() > query.limit()) {
+        break;
+      }
+    }
+    return GamePage.of(gameInfos, query.limit());
   }
 
   @Override
@@ -109,9 +181,9 @@ public class MemoryDAO implements DatabaseAccess {
     if (verifiedAuthToken == null) {
       throw new DataAccessException("unauthorized");
     }
-    var newGame=new Game(++gameID, game.whiteUsername(), game.blackUsername(), game.gameName(), new ChessGame());
-    games.put(gameID, newGame);
-    return newGame;
+    var newGame=new Game(gameID.incrementAndGet(), game.whiteUsername(), game.blackUsername(), game.gameName(), new ChessGame(), 0);
+    games.put(newGame.gameID(), newGame);
+    return copyOf(newGame);
   }
 
   @Override
@@ -131,19 +203,21 @@ public class MemoryDAO implements DatabaseAccess {
 
     var username=verifiedAuthToken.username();
 
-    var gameToJoin=games.get(game.gameID());
+    synchronized (lockFor(game.gameID())) {
+      var gameToJoin=games.get(game.gameID());
 
-    if (gameToJoin == null) {
-      throw new DataAccessException("bad request");
-    }
+      if (gameToJoin == null) {
+        throw new DataAccessException("bad request");
+      }
 
-    if (game.blackUsername() == null && game.whiteUsername() == null) {
-      return;
-    }
+      if (game.blackUsername() == null && game.whiteUsername() == null) {
+        return;
+      }
 
-    var newGame = getGame(game, gameToJoin, username);
+      var newGame = getGame(game, gameToJoin, username);
 
-    games.put(game.gameID(), newGame);
+      games.put(game.gameID(), newGame);
+    }
   }
 
   private static Game getGame(Game game, Game gameToJoin, String username) throws DataAccessException {
@@ -162,24 +236,62 @@ public class MemoryDAO implements DatabaseAccess {
       whiteUsername= username;
     }
 
-    return new Game(game.gameID(), whiteUsername, blackUsername, gameToJoin.gameName(), gameToJoin.game());
+    return new Game(
+      game.gameID(),
+      whiteUsername,
+      blackUsername,
+      gameToJoin.gameName(),
+      gameToJoin.game(),
+      gameToJoin.version() + 1
+    );
   }
 
   @Override
   public AuthToken verifyAuthToken(AuthToken authToken) throws DataAccessException {
-    if (!authTokens.containsKey(authToken.authToken())) {
-      return null;
+    if (authToken == null) {
+      throw new DataAccessException("unauthorized");
     }
     return authTokens.get(authToken.authToken());
   }
 
   @Override
   public void updateGame(AuthToken authToken, Game game) throws DataAccessException {
-    
+    if (authToken == null) {
+      throw new DataAccessException("unauthorized");
+    }
+    if (game == null) {
+      throw new DataAccessException("bad request");
+    }
+    authenticatedUser(authToken);
+    var chessGame=game.game() == null ? null : game.game().copy();
+
+    synchronized (lockFor(game.gameID())) {
+      var existing=games.get(game.gameID());
+      if (existing == null) {
+        throw new DataAccessException("No game");
+      }
+      if (game.version() != Game.ANY_VERSION && game.version() != existing.version()) {
+        throw new DataAccessException("conflict");
+      }
+      games.put(game.gameID(), new Game(
+        existing.gameID(),
+        existing.whiteUsername(),
+        existing.blackUsername(),
+        existing.gameName(),
+        chessGame,
+        existing.version() + 1
+      ));
+    }
   }
 
   @Override
   public Game getGame(AuthToken authToken, int gameID) throws DataAccessException {
-    return null;
+    authenticatedUser(authToken);
+
+    var game=games.get(gameID);
+    if (game == null) {
+      throw new DataAccessException("No game");
+    }
+    return copyOf(game);
   }
 }
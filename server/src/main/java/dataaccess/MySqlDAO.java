@@ -1,8 +1,12 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.GameCodec;
 import models.AuthToken;
 import models.Game;
+import models.GameInfo;
+import models.GamePage;
+import models.GameQuery;
 import models.User;
 import org.mindrot.jbcrypt.BCrypt;
 
@@ -17,7 +21,24 @@ import static java.sql.Statement.RETURN_GENERATED_KEYS;
 import static java.sql.Types.NULL;
 
 public class MySqlDAO implements DatabaseAccess {
+  private static final int TOKEN_CACHE_SIZE=10_000;
+  /**
+   * Encoded starting position every new game is stored with
+   */
+  private static final byte[] NEW_GAME_STATE;
+
+  static {
+    var newGame=new ChessGame();
+    newGame.getBoard().resetBoard();
+    NEW_GAME_STATE=GameCodec.encode(newGame);
+  }
+
+  private static final long TOKEN_CACHE_TTL_MILLIS=60_000;
   private static MySqlDAO instance;
+  /**
+   * Verified auth tokens, shared by every instance since they all use the same database
+   */
+  private static final AuthTokenCache tokenCache=new AuthTokenCache(TOKEN_CACHE_SIZE, TOKEN_CACHE_TTL_MILLIS);
   /**
    * Statements to create database and tables if they don't already exist
    */
@@ -26,11 +47,14 @@ public class MySqlDAO implements DatabaseAccess {
           create table if not exists games (
             id int not null auto_increment,
             name varchar(256) not null,
-            game char(64) not null,
-            currentTurn int not null,
+            state varbinary(64) not null,
             whitePlayer varchar(256),
             blackPlayer varchar(256),
-            primary key (id)
+            version int not null default 0,
+            primary key (id),
+            index games_white (whitePlayer),
+            index games_black (blackPlayer),
+            index games_name (name)
           );
           """,
           """
@@ -51,15 +75,25 @@ public class MySqlDAO implements DatabaseAccess {
           """
   };
 
+  /**
+   * Columns read by gameAdapter, in the order it reads them
+   */
+  private static final String GAME_COLUMNS="id, whitePlayer, blackPlayer, name, state, version";
+
   private final Adapter<Game> gameAdapter=rs -> new Game(
           rs.getInt(1),
-          rs.getString(5),
-          rs.getString(6),
           rs.getString(2),
-          ChessGame.deserialize(
-                  rs.getString(3),
-                  ChessGame.TeamColor.values()[rs.getInt(4)]
-          )
+          rs.getString(3),
+          rs.getString(4),
+          GameCodec.decode(rs.getBytes(5)),
+          rs.getInt(6)
+  );
+
+  private final Adapter<GameInfo> gameInfoAdapter=rs -> new GameInfo(
+          rs.getInt(1),
+          rs.getString(2),
+          rs.getString(3),
+          rs.getString(4)
   );
 
   public MySqlDAO() throws DataAccessException {
@@ -95,12 +129,56 @@ public class MySqlDAO implements DatabaseAccess {
     } catch (SQLException ex) {
       throw new DataAccessException(ex.getMessage());
     }
+
+    migrate();
+  }
+
+  /**
+   * Bring tables created by older versions up to the current schema
+   */
+  private void migrate() throws DataAccessException {
+    if (!columnExists("version")) {
+      executeUpdate("alter table games add column version int not null default 0;");
+    }
+
+    // boards used to be stored as serialize() text plus a currentTurn column
+    if (columnExists("game")) {
+      if (!columnExists("state")) {
+        executeUpdate("alter table games add column state varbinary(64);");
+      }
+      record Converted(int id, byte[] state) {
+      }
+      Adapter<Converted> textAdapter=rs -> new Converted(
+              rs.getInt(1),
+              GameCodec.encode(ChessGame.deserialize(rs.getString(2), ChessGame.TeamColor.values()[rs.getInt(3)]))
+      );
+      var rows=executeQuery("select id, game, currentTurn from games where state is null;", textAdapter);
+      for (var row : rows) {
+        executeUpdate("update games set state = ? where id = ?;", row.state(), row.id());
+      }
+      executeUpdate("alter table games drop column game, drop column currentTurn, modify state varbinary(64) not null;");
+    }
+
+    var gameIndex="""
+            select 1 from information_schema.statistics
+            where table_schema=database() and table_name='games' and index_name=?;
+            """;
+    var indexes=new String[][]{
+            {"games_white", "whitePlayer"},
+            {"games_black", "blackPlayer"},
+            {"games_name", "name"}
+    };
+    for (var index : indexes) {
+      if (executeQuery(gameIndex, rs -> true, index[0]).isEmpty()) {
+        executeUpdate("create index " + index[0] + " on games (" + index[1] + ");");
+      }
+    }
   }
 
   /**
-   * Get a connection to the database
+   * Borrow a connection from the pool; closing it returns it
    *
-   * @return new connection
+   * @return pooled connection
    */
   private Connection getConnection() throws DataAccessException {
     return DatabaseManager.getConnection();
@@ -117,7 +195,7 @@ public class MySqlDAO implements DatabaseAccess {
    */
   private <T> ArrayList<T> executeQuery(String statement, Adapter<T> adapter, Object... params) throws DataAccessException {
     try (var conn=getConnection()) {
-      try (var ps=conn.prepareStatement(statement, RETURN_GENERATED_KEYS)) {
+      try (var ps=conn.prepareStatement(statement)) {
         insertParametersIntoPreparedStatement(ps, params);
 
         return getResultsFromQuery(ps, adapter);
@@ -137,6 +215,14 @@ public class MySqlDAO implements DatabaseAccess {
     return results;
   }
 
+  private boolean columnExists(String column) throws DataAccessException {
+    var statement="""
+            select 1 from information_schema.columns
+            where table_schema=database() and table_name='games' and column_name=?;
+            """;
+    return !executeQuery(statement, rs -> true, column).isEmpty();
+  }
+
   private void insertParametersIntoPreparedStatement(PreparedStatement ps, Object... params) throws SQLException {
     for (var i=0; i < params.length; i++) {
       var param=params[i];
@@ -144,6 +230,7 @@ public class MySqlDAO implements DatabaseAccess {
       switch (param) {
         case String s -> ps.setString(i + 1, s);
         case Integer integer -> ps.setInt(i + 1, integer);
+        case byte[] bytes -> ps.setBytes(i + 1, bytes);
         case null -> ps.setNull(i + 1, NULL);
         default -> {
         }
@@ -156,17 +243,36 @@ public class MySqlDAO implements DatabaseAccess {
    *
    * @param statement Statement to execute
    * @param params    Parameters will replace the '?'s in the order they appear in the statement
-   * @return A tuple of how many rows were updated, and a generated key if one was created
+   * @return A tuple of how many rows were updated, with no generated key
    */
   private Tuple executeUpdate(String statement, Object... params) throws DataAccessException {
+    try (var conn=getConnection()) {
+      try (var ps=conn.prepareStatement(statement)) {
+        insertParametersIntoPreparedStatement(ps, params);
+        return new Tuple(ps.executeUpdate(), 0);
+      }
+    } catch (SQLException e) {
+      throw new DataAccessException(e.getMessage());
+    }
+  }
+
+  /**
+   * Used to run inserts into tables with an auto increment key
+   *
+   * @param statement Statement to execute
+   * @param params    Parameters will replace the '?'s in the order they appear in the statement
+   * @return A tuple of how many rows were updated, and a generated key if one was created
+   */
+  private Tuple executeInsert(String statement, Object... params) throws DataAccessException {
     try (var conn=getConnection()) {
       try (var ps=conn.prepareStatement(statement, RETURN_GENERATED_KEYS)) {
         insertParametersIntoPreparedStatement(ps, params);
         var numAffectedRows=ps.executeUpdate();
         var generatedID=0;
-        var rs=ps.getGeneratedKeys();
-        if (rs.next()) {
-          generatedID=rs.getInt(1);
+        try (var rs=ps.getGeneratedKeys()) {
+          if (rs.next()) {
+            generatedID=rs.getInt(1);
+          }
         }
         return new Tuple(numAffectedRows, generatedID);
       }
@@ -182,14 +288,28 @@ public class MySqlDAO implements DatabaseAccess {
    * @return A full authtoken wth authtoken and username, or null if unauthenticated
    */
   private AuthToken authenticatedUser(AuthToken authToken) throws DataAccessException {
-    try (var conn=getConnection()) {
-      var statement="select username from authTokens where authToken=?;";
-      Adapter<AuthToken> tokenAdapter=rs -> new AuthToken(authToken.authToken(), rs.getString(1));
-      var results=executeQuery(statement, tokenAdapter, authToken.authToken());
-      return results.isEmpty() ? null : results.getFirst();
-    } catch (SQLException ex) {
-      throw new DataAccessException(ex.getMessage());
+    var cached=tokenCache.get(authToken.authToken());
+    if (cached != null) {
+      return cached;
     }
+
+    // read before the select, so a logout that lands after it keeps this lookup out of the cache
+    var generation=tokenCache.generation();
+    var statement="select username from authTokens where authToken=?;";
+    Adapter<AuthToken> tokenAdapter=rs -> new AuthToken(authToken.authToken(), rs.getString(1));
+    var results=executeQuery(statement, tokenAdapter, authToken.authToken());
+    if (results.isEmpty()) {
+      return null;
+    }
+    tokenCache.put(results.getFirst(), generation);
+    return results.getFirst();
+  }
+
+  /**
+   * @return the cache of verified auth tokens, for its hit and miss counts
+   */
+  public AuthTokenCache getTokenCache() {
+    return tokenCache;
   }
 
   @Override
@@ -199,6 +319,7 @@ public class MySqlDAO implements DatabaseAccess {
       var statement="truncate " + table;
       executeUpdate(statement);
     }
+    tokenCache.clear();
   }
 
   private String encryptPassword(String password) {
@@ -275,6 +396,7 @@ public class MySqlDAO implements DatabaseAccess {
 
     var insertAuthTokenStatement="insert into authTokens values(?,?)";
     executeUpdate(insertAuthTokenStatement, authToken.username(), authToken.authToken());
+    tokenCache.put(authToken);
     return authToken;
   }
 
@@ -286,7 +408,11 @@ public class MySqlDAO implements DatabaseAccess {
 
     var statement="delete from authTokens where authToken=?;";
 
+    tokenCache.invalidate(authToken.authToken());
     var tuple=executeUpdate(statement, authToken.authToken());
+    // again once the delete has landed: this drops the token if a concurrent lookup cached it in between, and
+    // bumps the generation so a lookup whose select ran before the delete can't cache it afterwards
+    tokenCache.invalidate(authToken.authToken());
     if (tuple.numAffectedRows() == 0) {
       throw new DataAccessException("unauthorized");
     }
@@ -302,37 +428,56 @@ public class MySqlDAO implements DatabaseAccess {
       throw new DataAccessException("unauthorized");
     }
 
-    var statement="select * from games;";
+    var statement="select " + GAME_COLUMNS + " from games;";
 
     return executeQuery(statement, gameAdapter);
   }
 
   @Override
-  public Game createGame(AuthToken authToken, Game game) throws DataAccessException {
+  public GamePage listGameInfos(AuthToken authToken, GameQuery query) throws DataAccessException {
     if (authToken == null) {
       throw new DataAccessException("unauthorized");
     }
-    if (game == null) {
+    if (query == null) {
       throw new DataAccessException("bad request");
     }
-
     authToken=authenticatedUser(authToken);
     if (authToken == null) {
       throw new DataAccessException("unauthorized");
     }
 
-    var statement="insert into games (name, game, currentTurn, whitePlayer, blackPlayer) values (?, ?, 0, ?, ?);";
-
-    var gameToInsert=new ChessGame();
-    gameToInsert.getBoard().resetBoard();
+    // walks the primary key from the cursor, so a page costs the same however deep into the listing it is
+    var statement=new StringBuilder("select id, whitePlayer, blackPlayer, name from games where id > ?");
+    var params=new ArrayList<>();
+    params.add(query.after());
+    if (query.openSeats()) {
+      statement.append(" and (whitePlayer is null or whitePlayer = '' or blackPlayer is null or blackPlayer = '')");
+    }
+    if (query.player() != null) {
+      statement.append(" and (whitePlayer = ? or blackPlayer = ?)");
+      params.add(query.player());
+      params.add(query.player());
+    }
+    if (query.namePrefix() != null) {
+      // binary, so the prefix is case sensitive like GameQuery.matches rather than following the collation
+      statement.append(" and name like binary ?");
+      params.add(escapeLike(query.namePrefix()) + "%");
+    }
+    statement.append(" order by id");
+    if (query.limit() > 0) {
+      statement.append(" limit ?");
+      params.add(query.limit() + 1);
+    }
 
-    var tuple=executeUpdate(statement, game.gameName(), gameToInsert.serialize(), game.whiteUsername(), game.blackUsername());
+    return GamePage.of(executeQuery(statement.toString(), gameInfoAdapter, params.toArray()), query.limit());
+  }
 
-    return new Game(tuple.generatedID(), game.whiteUsername(), game.whiteUsername(), game.gameName(), new ChessGame());
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
   }
 
   @Override
-  public void joinGame(AuthToken authToken, Game game) throws DataAccessException {
+  public Game createGame(AuthToken authToken, Game game) throws DataAccessException {
     if (authToken == null) {
       throw new DataAccessException("unauthorized");
     }
@@ -341,44 +486,56 @@ public class MySqlDAO implements DatabaseAccess {
     }
 
     authToken=authenticatedUser(authToken);
-
     if (authToken == null) {
       throw new DataAccessException("unauthorized");
     }
 
-    var username=authToken.username();
+    var statement="insert into games (name, state, whitePlayer, blackPlayer) values (?, ?, ?, ?);";
 
-    var statement="select * from games where id=?;";
-    var results=executeQuery(statement, gameAdapter, game.gameID());
+    var tuple=executeInsert(statement, game.gameName(), NEW_GAME_STATE, game.whiteUsername(), game.blackUsername());
 
-    if (results.isEmpty()) {
+    return new Game(tuple.generatedID(), game.whiteUsername(), game.whiteUsername(), game.gameName(), new ChessGame(), 0);
+  }
+
+  @Override
+  public void joinGame(AuthToken authToken, Game game) throws DataAccessException {
+    if (authToken == null) {
+      throw new DataAccessException("unauthorized");
+    }
+    if (game == null) {
       throw new DataAccessException("bad request");
     }
 
-    var gameToJoin=results.getFirst();
+    authToken=authenticatedUser(authToken);
+
+    if (authToken == null) {
+      throw new DataAccessException("unauthorized");
+    }
 
     if (game.blackUsername() == null && game.whiteUsername() == null) {
+      if (!gameExists(game.gameID())) {
+        throw new DataAccessException("bad request");
+      }
       return;
     }
 
-    var whiteUsername=gameToJoin.whiteUsername();
-    var blackUsername=gameToJoin.blackUsername();
-    var nullUserToReplace=game.blackUsername() != null ? blackUsername : whiteUsername;
-
-    if (nullUserToReplace != null && !nullUserToReplace.isEmpty()) {
-      throw new DataAccessException("already taken");
-    }
+    var joinAsWhite=game.whiteUsername() != null && !game.whiteUsername().isEmpty();
+    // claims the seat only if it's still open, so the read and the write are one atomic statement
+    var statement=joinAsWhite
+      ? "update games set whitePlayer = ?, version = version + 1 where id = ? and (whitePlayer is null or whitePlayer = '');"
+      : "update games set blackPlayer = ?, version = version + 1 where id = ? and (blackPlayer is null or blackPlayer = '');";
 
-    if (game.whiteUsername() == null || game.whiteUsername().isEmpty()) {
-      blackUsername=username;
-    }
-    else {
-      whiteUsername=username;
+    var tuple=executeUpdate(statement, authToken.username(), game.gameID());
+    if (tuple.numAffectedRows() == 1) {
+      return;
     }
 
-    var updateStatement="update games set whitePlayer = ?, blackPlayer = ? where id = ?;";
+    // nothing was claimed: either the seat was taken or the game doesn't exist
+    throw new DataAccessException(gameExists(game.gameID()) ? "already taken" : "bad request");
+  }
 
-    executeUpdate(updateStatement, whiteUsername, blackUsername, game.gameID());
+  private boolean gameExists(int gameID) throws DataAccessException {
+    return !executeQuery("select 1 from games where id=?;", rs -> true, gameID).isEmpty();
   }
 
   @Override
@@ -401,18 +558,21 @@ public class MySqlDAO implements DatabaseAccess {
     if (authToken == null) {
       throw new DataAccessException("unauthorized");
     }
-    var gameID=game.gameID();
+    var state=GameCodec.encode(game.game());
 
-    var statement="select * from games where id=?;";
-    var results=executeQuery(statement, gameAdapter, gameID);
-    if (results.isEmpty()) {
-      throw new DataAccessException("No game");
+    Tuple tuple;
+    if (game.version() == Game.ANY_VERSION) {
+      var statement="update games set state = ?, version = version + 1 where id = ?;";
+      tuple=executeUpdate(statement, state, game.gameID());
+    }
+    else {
+      var statement="update games set state = ?, version = version + 1 where id = ? and version = ?;";
+      tuple=executeUpdate(statement, state, game.gameID(), game.version());
     }
 
-    var statement1="update games set game = ?, currentTurn = ? where id = ?;";
-    var trueGame=(ChessGame) game.game();
-    var currentTurn=trueGame.getTeamTurn() == ChessGame.TeamColor.WHITE ? 0 : 1;
-    executeUpdate(statement1, trueGame.serialize(), currentTurn, game.gameID());
+    if (tuple.numAffectedRows() == 0) {
+      throw new DataAccessException(gameExists(game.gameID()) ? "conflict" : "No game");
+    }
   }
 
   @Override
@@ -426,7 +586,7 @@ public class MySqlDAO implements DatabaseAccess {
       throw new DataAccessException("unauthorized");
     }
 
-    var statement="select * from games where id=?;";
+    var statement="select " + GAME_COLUMNS + " from games where id=?;";
     var results=executeQuery(statement, gameAdapter, gameID);
     if (results.isEmpty()) {
       throw new DataAccessException("No game");
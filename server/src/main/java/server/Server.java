@@ -14,6 +14,7 @@ public class Server {
     AuthService authService;
     UserService userService;
     GameService gameService;
+    HintService hintService;
     TestingService testingService;
     DatabaseAccess dao;
 
@@ -28,6 +29,7 @@ public class Server {
             authService=new AuthService(dao);
             userService=new UserService(dao);
             gameService=new GameService(dao);
+            hintService=new HintService(gameService);
             testingService=new TestingService(dao);
         } catch (DataAccessException e) {
             System.out.println(e.getMessage());
@@ -43,6 +45,7 @@ public class Server {
         get("/game", this::listGames);
         post("/game", this::createGame);
         put("/game", this::joinGame);
+        get("/game/:id/hint", this::hint);
 
         delete("/db", this::clear);
 
@@ -98,18 +101,31 @@ public class Server {
         String authTokenString=req.headers().contains("authorization") ? req.headers("authorization") : req.headers("Authorization");
         AuthToken authToken=new AuthToken(authTokenString, "");
         try {
-            var games=gameService.listGames(authToken);
-            ArrayList<GameInfo> gameInfos=new ArrayList<>();
-            for (var game : games) {
-                gameInfos.add(GameInfo.fromGame(game));
-            }
+            var page=gameService.listGames(authToken, parseGameQuery(req));
             res.status(200);
-            return toJSON(Collections.singletonMap("games", gameInfos));
+            // without a limit there's never a next cursor, so the body stays {"games": [...]}
+            return toJSON(page);
         } catch (DataAccessException err) {
             return databaseErrorHandler(err, req, res);
         }
     }
 
+    private GameQuery parseGameQuery(Request req) throws DataAccessException {
+        try {
+            var limit=req.queryParams("limit");
+            var after=req.queryParams("after");
+            return new GameQuery(
+                    limit == null ? 0 : Integer.parseInt(limit),
+                    after == null ? 0 : Integer.parseInt(after),
+                    Boolean.parseBoolean(req.queryParams("openSeats")),
+                    req.queryParams("player"),
+                    req.queryParams("namePrefix")
+            );
+        } catch (NumberFormatException err) {
+            throw new DataAccessException("bad request");
+        }
+    }
+
     private Object createGame(Request req, Response res) {
         String authTokenString=req.headers().contains("authorization") ? req.headers("authorization") : req.headers("Authorization");
         AuthToken authToken=new AuthToken(authTokenString, "");
@@ -148,9 +164,31 @@ public class Server {
         }
     }
 
+    private Object hint(Request req, Response res) {
+        String authTokenString=req.headers().contains("authorization") ? req.headers("authorization") : req.headers("Authorization");
+        AuthToken authToken=new AuthToken(authTokenString, "");
+        try {
+            int gameID;
+            try {
+                gameID=Integer.parseInt(req.params(":id"));
+            } catch (NumberFormatException err) {
+                throw new DataAccessException("bad request");
+            }
+            var hint=hintService.hint(authToken, gameID);
+            res.status(200);
+            return toJSON(hint);
+        } catch (DataAccessException err) {
+            if ("busy".equals(err.getMessage())) {
+                res.header("Retry-After", "1");
+            }
+            return databaseErrorHandler(err, req, res);
+        }
+    }
+
     private Object clear(Request request, Response response) {
         try {
             testingService.clear();
+            hintService.clear();
         } catch (Exception err) {
             return errorHandler(err, request, response);
         }
@@ -174,6 +212,8 @@ public class Server {
         switch (err.getMessage()) {
             case "unauthorized" -> status=401;
             case "already taken" -> status=403;
+            case "conflict" -> status=409;
+            case "busy" -> status=503;
             default -> status=400;
         }
 
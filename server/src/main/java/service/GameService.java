@@ -5,6 +5,9 @@ import dataaccess.DatabaseAccess;
 import dataaccess.MySqlDAO;
 import models.AuthToken;
 import models.Game;
+import models.GameInfo;
+import models.GamePage;
+import models.GameQuery;
 
 import java.util.List;
 
@@ -20,13 +23,24 @@ public class GameService {
   }
 
   /**
-   * Lists all games
+   * Lists all games, without their boards
    *
    * @param authToken authorized token of user
-   * @return A list of all games
+   * @return A list of all games' info
    */
-  public List<Game> listGames(AuthToken authToken) throws DataAccessException {
-    return dao.listGames(authToken);
+  public List<GameInfo> listGames(AuthToken authToken) throws DataAccessException {
+    return dao.listGameInfos(authToken);
+  }
+
+  /**
+   * Lists one page of games, without their boards
+   *
+   * @param authToken authorized token of user
+   * @param query     filters, page size and cursor
+   * @return the page, with the cursor for the next one
+   */
+  public GamePage listGames(AuthToken authToken, GameQuery query) throws DataAccessException {
+    return dao.listGameInfos(authToken, query);
   }
 
   /**
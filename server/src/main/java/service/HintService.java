@@ -0,0 +1,111 @@
+package service;
+
+import chess.PackedMove;
+import chess.Search;
+import chess.TranspositionTable;
+import dataaccess.DataAccessException;
+import models.AuthToken;
+import models.Hint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Suggests moves for stored games by searching them on the request thread.
+ * <p>
+ * Every search stops at a fixed deadline, so a hint never holds its thread for longer than the time budget.
+ * Only a few searches may run at once; past that, requests fail with "busy" straight away instead of queueing
+ * behind the others, which keeps the server's threads free for ordinary requests. Finished hints are cached by
+ * position key, and cache hits don't count against the limit. All searches share one transposition table.
+ */
+public class HintService {
+  private final GameService gameService;
+  private final Config config;
+  private final Semaphore permits;
+  private final TranspositionTable table;
+  private final LinkedHashMap<Long, Hint> cache;
+
+  /**
+   * @param maxConcurrent    most searches running at once
+   * @param timeBudgetMillis wall time each search may take
+   * @param maxDepth         deepest iteration to search, in plies
+   * @param tableMegabytes   size of the shared transposition table
+   * @param cacheSize        most positions whose hints are kept
+   */
+  public record Config(int maxConcurrent, long timeBudgetMillis, int maxDepth, int tableMegabytes, int cacheSize) {
+    public static final Config DEFAULT=new Config(2, 500, 12, 16, 1024);
+  }
+
+  public HintService(GameService gameService) {
+    this(gameService, Config.DEFAULT);
+  }
+
+  public HintService(GameService gameService, Config config) {
+    this.gameService=gameService;
+    this.config=config;
+    this.permits=new Semaphore(Math.max(0, config.maxConcurrent()));
+    this.table=new TranspositionTable(config.tableMegabytes());
+    this.cache=new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, Hint> eldest) {
+        return size() > HintService.this.config.cacheSize();
+      }
+    };
+  }
+
+  /**
+   * Suggests a move for the side to move in a game
+   *
+   * @param authToken authorized token of user
+   * @param gameID    ID of the game
+   * @return the best move found within the time budget
+   * @throws DataAccessException "busy" if too many searches are already running
+   */
+  public Hint hint(AuthToken authToken, int gameID) throws DataAccessException {
+    var game=gameService.getGame(authToken, gameID).game();
+    if (game.status().isOver()) {
+      return new Hint(null, 0, 0, 0);
+    }
+
+    var key=game.positionKey();
+    Hint cached;
+    synchronized (cache) {
+      cached=cache.get(key);
+    }
+    if (cached != null) {
+      return new Hint(cached.move(), cached.score(), cached.depth(), 0);
+    }
+
+    if (!permits.tryAcquire()) {
+      throw new DataAccessException("busy");
+    }
+    Search.Result result;
+    try {
+      var search=new Search(game, table);
+      result=search.search(new Search.Limits(config.maxDepth(), 0, config.timeBudgetMillis()));
+    } finally {
+      permits.release();
+    }
+
+    var move=result.move() == null ? null : PackedMove.toAlgebraic(PackedMove.fromChessMove(result.move()));
+    var hint=new Hint(move, result.score(), result.depth(), result.nodes());
+    // a search cut off before its first iteration finished is only a guess, so it isn't kept
+    if (result.depth() > 0 && config.cacheSize() > 0) {
+      synchronized (cache) {
+        cache.put(key, hint);
+      }
+    }
+    return hint;
+  }
+
+  /**
+   * Forgets every cached hint
+   */
+  public void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+    table.clear();
+  }
+}
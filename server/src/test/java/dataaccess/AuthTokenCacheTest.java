@@ -0,0 +1,92 @@
+package dataaccess;
+
+import models.AuthToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthTokenCacheTest {
+  long now;
+  AuthTokenCache cache;
+  AuthToken authToken;
+
+  @BeforeEach
+  void prepTest() {
+    now=0;
+    cache=new AuthTokenCache(2, 1000, () -> now);
+    authToken=new AuthToken("username");
+  }
+
+  @Test
+  void hitAfterPut() {
+    assertNull(cache.get(authToken.authToken()));
+    cache.put(authToken);
+
+    assertEquals(authToken, cache.get(authToken.authToken()));
+    assertEquals(1, cache.hits());
+    assertEquals(1, cache.misses());
+  }
+
+  @Test
+  void expiresAfterTtl() {
+    cache.put(authToken);
+    now=999;
+    assertNotNull(cache.get(authToken.authToken()));
+
+    now=1000;
+    assertNull(cache.get(authToken.authToken()));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void evictsLeastRecentlyUsed() {
+    var second=new AuthToken("second");
+    var third=new AuthToken("third");
+    cache.put(authToken);
+    cache.put(second);
+    cache.get(authToken.authToken());
+
+    cache.put(third);
+
+    assertNotNull(cache.get(authToken.authToken()));
+    assertNull(cache.get(second.authToken()));
+    assertNotNull(cache.get(third.authToken()));
+  }
+
+  @Test
+  void invalidateAndClear() {
+    var other=new AuthToken("other");
+    cache.put(authToken);
+    cache.put(other);
+
+    cache.invalidate(authToken.authToken());
+    assertNull(cache.get(authToken.authToken()));
+    assertNotNull(cache.get(other.authToken()));
+
+    cache.clear();
+    assertNull(cache.get(other.authToken()));
+  }
+
+  @Test
+  void stalePutAfterInvalidateIsDropped() {
+    // a lookup reads the generation and selects the token, then a logout deletes and invalidates it
+    var generation=cache.generation();
+    cache.invalidate(authToken.authToken());
+
+    assertFalse(cache.put(authToken, generation));
+    assertNull(cache.get(authToken.authToken()));
+
+    assertTrue(cache.put(authToken, cache.generation()));
+    assertEquals(authToken, cache.get(authToken.authToken()));
+  }
+
+  @Test
+  void stalePutAfterClearIsDropped() {
+    var generation=cache.generation();
+    cache.clear();
+
+    assertFalse(cache.put(authToken, generation));
+    assertEquals(0, cache.size());
+  }
+}
@@ -0,0 +1,191 @@
+package dataaccess;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+  List<FakeConnection> opened;
+  ConnectionPool pool;
+
+  @BeforeEach
+  void prepTest() {
+    opened=new ArrayList<>();
+    pool=new ConnectionPool(this::open, new ConnectionPool.Config(0, 2, 60_000, 100, 0, 4));
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.close();
+  }
+
+  @Test
+  void closeReturnsConnectionToPool() throws Exception {
+    try (var conn=pool.getConnection()) {
+      assertEquals(1, pool.activeCount());
+    }
+    assertEquals(0, pool.activeCount());
+    assertEquals(1, pool.idleCount());
+
+    try (var conn=pool.getConnection()) {
+      assertFalse(conn.isClosed());
+    }
+    assertEquals(1, opened.size());
+    assertFalse(opened.getFirst().closed);
+  }
+
+  @Test
+  void closedHandleRefusesUse() throws Exception {
+    var conn=pool.getConnection();
+    conn.close();
+
+    assertTrue(conn.isClosed());
+    assertThrows(SQLException.class, conn::getAutoCommit);
+  }
+
+  @Test
+  void borrowTimesOutWhenExhausted() throws Exception {
+    try (var first=pool.getConnection(); var second=pool.getConnection()) {
+      var ex=assertThrows(DataAccessException.class, pool::getConnection);
+      assertEquals("timed out waiting for a database connection", ex.getMessage());
+    }
+    assertDoesNotThrow(() -> pool.getConnection().close());
+  }
+
+  @Test
+  void invalidConnectionIsReplaced() throws Exception {
+    pool.getConnection().close();
+    opened.getFirst().valid=false;
+
+    Thread.sleep(600);
+    try (var conn=pool.getConnection()) {
+      assertEquals(2, opened.size());
+      assertTrue(opened.getFirst().closed);
+    }
+  }
+
+  @Test
+  void openTransactionIsRolledBack() throws Exception {
+    try (var conn=pool.getConnection()) {
+      conn.setAutoCommit(false);
+    }
+    assertTrue(opened.getFirst().rolledBack);
+    assertTrue(opened.getFirst().autoCommit);
+  }
+
+  @Test
+  void statementsAreReusedAcrossBorrows() throws Exception {
+    for (var i=0; i < 3; ++i) {
+      try (var conn=pool.getConnection(); var ps=conn.prepareStatement("select 1")) {
+        assertFalse(ps.isClosed());
+      }
+    }
+    assertEquals(1, opened.getFirst().prepared);
+    assertEquals(0, opened.getFirst().statementsClosed);
+  }
+
+  @Test
+  void generatedKeysAreCachedSeparately() throws Exception {
+    try (var conn=pool.getConnection()) {
+      conn.prepareStatement("insert").close();
+      conn.prepareStatement("insert", Statement.RETURN_GENERATED_KEYS).close();
+      conn.prepareStatement("insert").close();
+    }
+    assertEquals(2, opened.getFirst().prepared);
+  }
+
+  @Test
+  void statementInUseIsNotShared() throws Exception {
+    try (var conn=pool.getConnection(); var first=conn.prepareStatement("select 1")) {
+      try (var second=conn.prepareStatement("select 1")) {
+        assertNotSame(first, second);
+      }
+    }
+    assertEquals(2, opened.getFirst().prepared);
+  }
+
+  @Test
+  void leastRecentlyUsedStatementIsEvicted() throws Exception {
+    try (var conn=pool.getConnection()) {
+      for (var i=0; i < 5; ++i) {
+        conn.prepareStatement("select " + i).close();
+      }
+      assertEquals(1, opened.getFirst().statementsClosed);
+      conn.prepareStatement("select 4").close();
+    }
+    assertEquals(5, opened.getFirst().prepared);
+  }
+
+  @Test
+  void unclosedStatementIsClosedOnRelease() throws Exception {
+    var conn=pool.getConnection();
+    var ps=conn.prepareStatement("select 1");
+    conn.close();
+
+    assertEquals(1, opened.getFirst().statementsClosed);
+    try (var next=pool.getConnection(); var again=next.prepareStatement("select 1")) {
+      assertNotSame(ps, again);
+    }
+    assertEquals(2, opened.getFirst().prepared);
+  }
+
+  private Connection open() {
+    var fake=new FakeConnection();
+    opened.add(fake);
+    return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, method, args) -> switch (method.getName()) {
+              case "isValid" -> fake.valid;
+              case "close" -> {
+                fake.closed=true;
+                yield null;
+              }
+              case "getAutoCommit" -> fake.autoCommit;
+              case "setAutoCommit" -> {
+                fake.autoCommit=(Boolean) args[0];
+                yield null;
+              }
+              case "rollback" -> {
+                fake.rolledBack=true;
+                yield null;
+              }
+              case "prepareStatement" -> prepare(fake);
+              default -> null;
+            }
+    );
+  }
+
+  private PreparedStatement prepare(FakeConnection fake) {
+    ++fake.prepared;
+    return (PreparedStatement) Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(),
+            new Class<?>[]{PreparedStatement.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("close")) {
+                ++fake.statementsClosed;
+              }
+              return null;
+            }
+    );
+  }
+
+  static class FakeConnection {
+    boolean valid=true;
+    boolean closed;
+    boolean autoCommit=true;
+    boolean rolledBack;
+    int prepared;
+    int statementsClosed;
+  }
+}
@@ -1,12 +1,19 @@
 package dataaccess;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
 import models.AuthToken;
 import models.Game;
+import models.GameInfo;
+import models.GameQuery;
 import models.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.ArrayList;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class DAOTests {
@@ -168,6 +175,105 @@ class DAOTests {
     assertEquals("unauthorized", err.getMessage());
   }
 
+  @ParameterizedTest
+  @ValueSource(classes = {MemoryDAO.class, MySqlDAO.class})
+  void listGameInfosSuccess(Class<DatabaseAccess> daoClass) {
+    var dao=instantiateDatabase(daoClass);
+
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+
+    var game=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("gameName")));
+    assertDoesNotThrow(() -> dao.joinGame(authToken, new Game(game.gameID(), null, "BLACK", null, null)));
+
+    var gameInfos=assertDoesNotThrow(() -> dao.listGameInfos(authToken));
+
+    assertEquals(1, gameInfos.size());
+    assertEquals(new GameInfo(game.gameID(), null, user.username(), "gameName"), gameInfos.getFirst());
+  }
+
+  @ParameterizedTest
+  @ValueSource(classes = {MemoryDAO.class, MySqlDAO.class})
+  void listGameInfosPages(Class<DatabaseAccess> daoClass) {
+    var dao=instantiateDatabase(daoClass);
+
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+    for (var i=0; i < 5; i++) {
+      var name="game " + i;
+      assertDoesNotThrow(() -> dao.createGame(authToken, new Game(name)));
+    }
+
+    var seen=new ArrayList<GameInfo>();
+    var after=0;
+    for (var pages=1; ; pages++) {
+      var query=new GameQuery(2, after, false, null, null);
+      var page=assertDoesNotThrow(() -> dao.listGameInfos(authToken, query));
+      seen.addAll(page.games());
+      if (page.next() == null) {
+        assertEquals(3, pages);
+        break;
+      }
+      after=page.next();
+    }
+
+    assertEquals(assertDoesNotThrow(() -> dao.listGameInfos(authToken)), seen);
+  }
+
+  @ParameterizedTest
+  @ValueSource(classes = {MemoryDAO.class, MySqlDAO.class})
+  void listGameInfosFilters(Class<DatabaseAccess> daoClass) {
+    var dao=instantiateDatabase(daoClass);
+
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+    var full=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("full_game")));
+    var open=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("open game")));
+    assertDoesNotThrow(() -> dao.createGame(authToken, new Game("fullXgame")));
+    assertDoesNotThrow(() -> dao.joinGame(authToken, new Game(full.gameID(), "WHITE", null, null, null)));
+    assertDoesNotThrow(() -> dao.joinGame(authToken, new Game(full.gameID(), null, "BLACK", null, null)));
+    assertDoesNotThrow(() -> dao.joinGame(authToken, new Game(open.gameID(), "WHITE", null, null, null)));
+
+    var openSeats=assertDoesNotThrow(() -> dao.listGameInfos(authToken, new GameQuery(0, 0, true, null, null)));
+    assertEquals(2, openSeats.games().size());
+    assertFalse(openSeats.games().stream().anyMatch(game -> game.gameID() == full.gameID()));
+
+    var playing=assertDoesNotThrow(() -> dao.listGameInfos(authToken, new GameQuery(0, 0, false, user.username(), null)));
+    assertEquals(2, playing.games().size());
+
+    var named=assertDoesNotThrow(() -> dao.listGameInfos(authToken, new GameQuery(0, 0, false, null, "full_")));
+    assertEquals(1, named.games().size());
+    assertEquals(full.gameID(), named.games().getFirst().gameID());
+  }
+
+  @ParameterizedTest
+  @ValueSource(classes = {MemoryDAO.class, MySqlDAO.class})
+  void listGameInfosNamePrefixIsCaseSensitive(Class<DatabaseAccess> daoClass) {
+    var dao=instantiateDatabase(daoClass);
+
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+    var upper=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("Knights Tour")));
+    var lower=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("knights tour")));
+
+    var upperNamed=assertDoesNotThrow(() -> dao.listGameInfos(authToken, new GameQuery(0, 0, false, null, "Knights")));
+    assertEquals(1, upperNamed.games().size());
+    assertEquals(upper.gameID(), upperNamed.games().getFirst().gameID());
+
+    var lowerNamed=assertDoesNotThrow(() -> dao.listGameInfos(authToken, new GameQuery(0, 0, false, null, "knights")));
+    assertEquals(1, lowerNamed.games().size());
+    assertEquals(lower.gameID(), lowerNamed.games().getFirst().gameID());
+
+    var mixed=assertDoesNotThrow(() -> dao.listGameInfos(authToken, new GameQuery(0, 0, false, null, "KNIGHTS")));
+    assertEquals(0, mixed.games().size());
+  }
+
+  @ParameterizedTest
+  @ValueSource(classes = {MemoryDAO.class, MySqlDAO.class})
+  void listGameInfosUnauthorized(Class<DatabaseAccess> daoClass) {
+    var dao=instantiateDatabase(daoClass);
+
+    var err=assertThrows(DataAccessException.class, () -> dao.listGameInfos(new AuthToken(user.username())));
+
+    assertEquals("unauthorized", err.getMessage());
+  }
+
   @ParameterizedTest
   @ValueSource(classes = {MemoryDAO.class, MySqlDAO.class})
   void createGameSuccess(Class<DatabaseAccess> daoClass) {
@@ -334,4 +440,95 @@ class DAOTests {
       )
     );
   }
+
+  @ParameterizedTest
+  @ValueSource(classes = {MemoryDAO.class, MySqlDAO.class})
+  void updateGameSuccess(Class<DatabaseAccess> daoClass) {
+    var dao=instantiateDatabase(daoClass);
+
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+
+    var game=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("gameName")));
+
+    var chessGame=new ChessGame();
+    chessGame.getBoard().resetBoard();
+    assertDoesNotThrow(() -> chessGame.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)));
+
+    assertDoesNotThrow(() -> dao.updateGame(authToken, new Game(game.gameID(), null, null, null, chessGame)));
+
+    var updated=assertDoesNotThrow(() -> dao.getGame(authToken, game.gameID()));
+    assertEquals(game.gameName(), updated.gameName());
+    assertEquals(chessGame, updated.game());
+  }
+
+  @ParameterizedTest
+  @ValueSource(classes = {MemoryDAO.class, MySqlDAO.class})
+  void getGameDoesNotExist(Class<DatabaseAccess> daoClass) {
+    var dao=instantiateDatabase(daoClass);
+
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+
+    var err=assertThrows(DataAccessException.class, () -> dao.getGame(authToken, 1));
+
+    assertEquals("No game", err.getMessage());
+  }
+
+  @ParameterizedTest
+  @ValueSource(classes = {MemoryDAO.class, MySqlDAO.class})
+  void getGameUnauthorized(Class<DatabaseAccess> daoClass) {
+    var dao=instantiateDatabase(daoClass);
+
+    var err=assertThrows(DataAccessException.class, () -> dao.getGame(new AuthToken(user.username()), 1));
+
+    assertEquals("unauthorized", err.getMessage());
+  }
+
+  @ParameterizedTest
+  @ValueSource(classes = {MemoryDAO.class, MySqlDAO.class})
+  void updateGameStaleVersionConflicts(Class<DatabaseAccess> daoClass) {
+    var dao=instantiateDatabase(daoClass);
+
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+
+    var game=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("gameName")));
+    var read=assertDoesNotThrow(() -> dao.getGame(authToken, game.gameID()));
+
+    assertDoesNotThrow(() -> dao.updateGame(authToken, read));
+    var updated=assertDoesNotThrow(() -> dao.getGame(authToken, game.gameID()));
+    assertEquals(read.version() + 1, updated.version());
+
+    var err=assertThrows(DataAccessException.class, () -> dao.updateGame(authToken, read));
+    assertEquals("conflict", err.getMessage());
+  }
+
+  @ParameterizedTest
+  @ValueSource(classes = {MemoryDAO.class, MySqlDAO.class})
+  void joinGameBumpsVersion(Class<DatabaseAccess> daoClass) {
+    var dao=instantiateDatabase(daoClass);
+
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+
+    var game=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("gameName")));
+    var before=assertDoesNotThrow(() -> dao.getGame(authToken, game.gameID()));
+
+    assertDoesNotThrow(() -> dao.joinGame(authToken, new Game(game.gameID(), "WHITE", null, null, null)));
+
+    var after=assertDoesNotThrow(() -> dao.getGame(authToken, game.gameID()));
+    assertEquals(user.username(), after.whiteUsername());
+    assertEquals(before.version() + 1, after.version());
+  }
+
+  @ParameterizedTest
+  @ValueSource(classes = {MemoryDAO.class, MySqlDAO.class})
+  void joinGameObserverGameDoesNotExist(Class<DatabaseAccess> daoClass) {
+    var dao=instantiateDatabase(daoClass);
+
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+
+    var err=assertThrows(DataAccessException.class,
+      () -> dao.joinGame(authToken, new Game(1, null, null, null, null))
+    );
+
+    assertEquals("bad request", err.getMessage());
+  }
 }
@@ -0,0 +1,117 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import models.AuthToken;
+import models.Game;
+import models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryDAOTest {
+  static final int THREADS=8;
+  MemoryDAO dao;
+
+  @BeforeEach
+  void prepTest() {
+    dao=new MemoryDAO();
+  }
+
+  @Test
+  void onlyOnePlayerGetsASeat() throws Exception {
+    var tokens=new ArrayList<AuthToken>();
+    for (var i=0; i < THREADS; i++) {
+      tokens.add(dao.insertUser(new User("user" + i, "password", "email")));
+    }
+    var game=dao.createGame(tokens.getFirst(), new Game("gameName"));
+
+    var joined=new AtomicInteger();
+    var taken=new AtomicInteger();
+    var start=new CountDownLatch(1);
+    try (var executor=Executors.newFixedThreadPool(THREADS)) {
+      for (var token : tokens) {
+        executor.submit(() -> {
+          start.await();
+          try {
+            dao.joinGame(token, new Game(game.gameID(), "WHITE", null, null, null));
+            joined.incrementAndGet();
+          } catch (DataAccessException ex) {
+            assertEquals("already taken", ex.getMessage());
+            taken.incrementAndGet();
+          }
+          return null;
+        });
+      }
+      start.countDown();
+    }
+
+    assertEquals(1, joined.get());
+    assertEquals(THREADS - 1, taken.get());
+    assertNotNull(dao.getGame(tokens.getFirst(), game.gameID()).whiteUsername());
+  }
+
+  @Test
+  void concurrentCreatesGetUniqueIDs() throws Exception {
+    var authToken=dao.insertUser(new User("username", "password", "email"));
+
+    var futures=new ArrayList<Future<Game>>();
+    try (var executor=Executors.newFixedThreadPool(THREADS)) {
+      for (var i=0; i < 1000; i++) {
+        futures.add(executor.submit(() -> dao.createGame(authToken, new Game("gameName"))));
+      }
+    }
+
+    var ids=new HashSet<Integer>();
+    for (var future : futures) {
+      ids.add(future.get().gameID());
+    }
+    assertEquals(1000, ids.size());
+    assertEquals(1000, dao.listGames(authToken).size());
+  }
+
+  @Test
+  void gamesAreCopiedInAndOut() throws Exception {
+    var authToken=dao.insertUser(new User("username", "password", "email"));
+    var created=dao.createGame(authToken, new Game("gameName"));
+    var update=new ChessGame();
+    dao.updateGame(authToken, new Game(created.gameID(), null, null, null, update));
+
+    var first=dao.getGame(authToken, created.gameID()).game();
+    var second=dao.getGame(authToken, created.gameID()).game();
+    assertNotSame(first, second);
+    assertNotSame(update, first);
+
+    // neither the caller's game nor a fetched one is the stored board
+    update.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5)));
+    first.makeMove(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(4, 4)));
+    created.game().makeMove(new ChessMove(ChessPosition.of(2, 3), ChessPosition.of(4, 3)));
+
+    assertEquals(new ChessGame(), dao.getGame(authToken, created.gameID()).game());
+    assertEquals(new ChessGame(), dao.listGames(authToken).getFirst().game());
+  }
+
+  @Test
+  void duplicateUserRejected() throws Exception {
+    var newUser=new User("username", "password", "email");
+    dao.insertUser(newUser);
+
+    var err=assertThrows(DataAccessException.class, () -> dao.insertUser(newUser));
+
+    assertEquals("already taken", err.getMessage());
+  }
+
+  @Test
+  void getInstanceIsSingleton() throws Exception {
+    assertSame(MemoryDAO.getInstance(), MemoryDAO.getInstance());
+  }
+}
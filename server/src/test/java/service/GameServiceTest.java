@@ -5,6 +5,7 @@ import dataaccess.DatabaseAccess;
 import dataaccess.MemoryDAO;
 import models.AuthToken;
 import models.Game;
+import models.GameInfo;
 import models.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,7 +40,7 @@ class GameServiceTest {
 
     var games=assertDoesNotThrow(() -> gameService.listGames(authToken));
 
-    assertTrue(games.contains(game));
+    assertTrue(games.contains(GameInfo.fromGame(game)));
   }
 
   @Test
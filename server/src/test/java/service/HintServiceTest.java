@@ -0,0 +1,133 @@
+package service;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import dataaccess.DataAccessException;
+import dataaccess.DatabaseAccess;
+import dataaccess.MemoryDAO;
+import models.AuthToken;
+import models.Game;
+import models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HintServiceTest {
+
+  DatabaseAccess dao;
+  User user;
+  GameService gameService;
+
+  @BeforeEach
+  void prepTest() {
+    user=new User("username", "password");
+    try {
+      dao=MemoryDAO.getInstance();
+      gameService=new GameService(dao);
+      dao.clear();
+    } catch (Exception err) {
+      System.out.println("Error: " + err.getMessage());
+    }
+  }
+
+  @Test
+  void hintSuccess() {
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+    var game=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("game")));
+    var hintService=new HintService(gameService, new HintService.Config(1, 200, 4, 1, 16));
+
+    var hint=assertDoesNotThrow(() -> hintService.hint(authToken, game.gameID()));
+
+    assertNotNull(hint.move());
+    assertTrue(hint.depth() > 0);
+    assertTrue(hint.nodes() > 0);
+    var from=ChessPosition.of(hint.move().charAt(1) - '0', hint.move().charAt(0) - 'a' + 1);
+    var to=ChessPosition.of(hint.move().charAt(3) - '0', hint.move().charAt(2) - 'a' + 1);
+    assertTrue(game.game().validMoves(from).contains(new ChessMove(from, to)));
+  }
+
+  @Test
+  void hintCached() {
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+    var game=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("game")));
+    var hintService=new HintService(gameService, new HintService.Config(1, 200, 4, 1, 16));
+
+    var first=assertDoesNotThrow(() -> hintService.hint(authToken, game.gameID()));
+    var second=assertDoesNotThrow(() -> hintService.hint(authToken, game.gameID()));
+
+    assertEquals(first.move(), second.move());
+    assertEquals(first.depth(), second.depth());
+    assertEquals(0, second.nodes());
+  }
+
+  @Test
+  void concurrentHintsLeaveStoredGameUnchanged() throws Exception {
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+    var game=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("game")));
+    var before=assertDoesNotThrow(() -> dao.getGame(authToken, game.gameID())).game();
+    var threads=4;
+    // no cache, so every call searches
+    var hintService=new HintService(gameService, new HintService.Config(threads, 50, 2, 1, 0));
+
+    var executor=Executors.newFixedThreadPool(threads);
+    try {
+      var futures=new ArrayList<Future<String>>();
+      for (int i=0; i < threads * 10; ++i) {
+        futures.add(executor.submit(() -> hintService.hint(authToken, game.gameID()).move()));
+      }
+      for (var future : futures) {
+        assertNotNull(future.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    var after=assertDoesNotThrow(() -> dao.getGame(authToken, game.gameID())).game();
+    assertEquals(before, after);
+    assertEquals(before.positionKey(), after.positionKey());
+    assertEquals(0, after.getMoveCount());
+  }
+
+  @Test
+  void hintBusy() {
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+    var game=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("game")));
+    var hintService=new HintService(gameService, new HintService.Config(0, 200, 4, 1, 16));
+
+    var err=assertThrows(DataAccessException.class, () -> hintService.hint(authToken, game.gameID()));
+
+    assertEquals("busy", err.getMessage());
+  }
+
+  @Test
+  void hintGameOver() {
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+    var game=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("game")));
+    var mated=ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+    assertDoesNotThrow(() -> dao.updateGame(authToken,
+            new Game(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(), mated)));
+    var hintService=new HintService(gameService, new HintService.Config(0, 200, 4, 1, 16));
+
+    var hint=assertDoesNotThrow(() -> hintService.hint(authToken, game.gameID()));
+
+    assertNull(hint.move());
+  }
+
+  @Test
+  void hintUnauthorized() {
+    var authToken=assertDoesNotThrow(() -> dao.insertUser(user));
+    var game=assertDoesNotThrow(() -> dao.createGame(authToken, new Game("game")));
+    var hintService=new HintService(gameService);
+
+    var err=assertThrows(DataAccessException.class,
+            () -> hintService.hint(new AuthToken(user.username()), game.gameID()));
+
+    assertEquals("unauthorized", err.getMessage());
+  }
+}
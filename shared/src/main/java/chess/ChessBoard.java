@@ -1,18 +1,68 @@
 package chess;
 
-import java.util.function.BiFunction;
+import java.util.Arrays;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
+ * The board is stored as twelve bitboards, one per color/piece type, plus
+ * occupancy masks for each color and the whole board. Square indices run from
+ * 0 (a1) to 63 (h8), i.e. {@code (row - 1) * 8 + (column - 1)}. A small mailbox
+ * mirrors the bitboards so looking up the piece on a single square is O(1).
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
 public class ChessBoard {
-    ChessPiece[][] board=new ChessPiece[8][8];
+    static final int NO_PIECE=-1;
+
+    private static final ChessPiece.PieceType[] BACK_RANK=new ChessPiece.PieceType[]{
+        ChessPiece.PieceType.ROOK,
+        ChessPiece.PieceType.KNIGHT,
+        ChessPiece.PieceType.BISHOP,
+        ChessPiece.PieceType.QUEEN,
+        ChessPiece.PieceType.KING,
+        ChessPiece.PieceType.BISHOP,
+        ChessPiece.PieceType.KNIGHT,
+        ChessPiece.PieceType.ROOK
+    };
+
+    // serialized letter of each piece, indexed by pieceIndex
+    private static final String PIECE_LETTERS="KQBNRPkqbnrp";
+
+    // one bitboard per color/piece type, indexed by pieceIndex
+    final long[] pieces=new long[12];
+    // occupancy per color, indexed by TeamColor.ordinal()
+    final long[] colors=new long[2];
+    long occupied;
+    // piece index on each square, or NO_PIECE
+    final byte[] mailbox=new byte[64];
+    // Zobrist key of the piece placement, updated on every placement and removal
+    long hash;
+    // Evaluation's material plus piece-square sums, white minus black, and the
+    // material phase, kept up to date the same way
+    int middlegame;
+    int endgame;
+    int phase;
 
     public ChessBoard() {
-        
+        Arrays.fill(mailbox, (byte) NO_PIECE);
+    }
+
+    /**
+     * @return an independent board with the same pieces
+     */
+    public ChessBoard copy() {
+        var copy=new ChessBoard();
+        System.arraycopy(pieces, 0, copy.pieces, 0, pieces.length);
+        System.arraycopy(colors, 0, copy.colors, 0, colors.length);
+        System.arraycopy(mailbox, 0, copy.mailbox, 0, mailbox.length);
+        copy.occupied=occupied;
+        copy.hash=hash;
+        copy.middlegame=middlegame;
+        copy.endgame=endgame;
+        copy.phase=phase;
+        return copy;
     }
 
     /**
@@ -23,7 +73,11 @@ public class ChessBoard {
      */
 
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[8 - position.getRow()][position.getColumn() - 1]=piece;
+        var square=squareOf(position);
+        removePiece(square);
+        if (piece != null) {
+            putPiece(square, pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     /**
@@ -34,7 +88,8 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return board[8 - position.getRow()][position.getColumn() - 1];
+        var index=mailbox[squareOf(position)];
+        return index == NO_PIECE ? null : ChessPiece.of(index);
     }
 
     /**
@@ -42,64 +97,92 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        // PieceFactory
-        BiFunction<ChessGame.TeamColor, ChessPiece.PieceType, ChessPiece> pf=
-                ChessPiece::new;
-        var white=ChessGame.TeamColor.WHITE;
-        var black=ChessGame.TeamColor.BLACK;
-        var rook=ChessPiece.PieceType.ROOK;
-        var knight=ChessPiece.PieceType.KNIGHT;
-        var bishop=ChessPiece.PieceType.BISHOP;
-        var king=ChessPiece.PieceType.KING;
-        var queen=ChessPiece.PieceType.QUEEN;
-        var pawn=ChessPiece.PieceType.PAWN;
-
-        board=new ChessPiece[][]{
-            {
-                pf.apply(black, rook),
-                pf.apply(black, knight),
-                pf.apply(black, bishop),
-                pf.apply(black, queen),
-                pf.apply(black, king),
-                pf.apply(black, bishop),
-                pf.apply(black, knight),
-                pf.apply(black, rook)
-            },
-            {
-                pf.apply(black, pawn),
-                pf.apply(black, pawn),
-                pf.apply(black, pawn),
-                pf.apply(black, pawn),
-                pf.apply(black, pawn),
-                pf.apply(black, pawn),
-                pf.apply(black, pawn),
-                pf.apply(black, pawn)
-            },
-            {null, null, null, null, null, null, null, null},
-            {null, null, null, null, null, null, null, null},
-            {null, null, null, null, null, null, null, null},
-            {null, null, null, null, null, null, null, null},
-            {
-                pf.apply(white, pawn),
-                pf.apply(white, pawn),
-                pf.apply(white, pawn),
-                pf.apply(white, pawn),
-                pf.apply(white, pawn),
-                pf.apply(white, pawn),
-                pf.apply(white, pawn),
-                pf.apply(white, pawn)
-            },
-            {
-                pf.apply(white, rook),
-                pf.apply(white, knight),
-                pf.apply(white, bishop),
-                pf.apply(white, queen),
-                pf.apply(white, king),
-                pf.apply(white, bishop),
-                pf.apply(white, knight),
-                pf.apply(white, rook)
-            },
-        };
+        clear();
+        for (int col=0; col < 8; ++col) {
+            putPiece(col, pieceIndex(ChessGame.TeamColor.WHITE, BACK_RANK[col]));
+            putPiece(8 + col, pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            putPiece(48 + col, pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            putPiece(56 + col, pieceIndex(ChessGame.TeamColor.BLACK, BACK_RANK[col]));
+        }
+    }
+
+    /**
+     * Removes every piece from the board
+     */
+    void clear() {
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colors, 0L);
+        occupied=0L;
+        Arrays.fill(mailbox, (byte) NO_PIECE);
+        hash=0L;
+        middlegame=0;
+        endgame=0;
+        phase=0;
+    }
+
+    /**
+     * @return the piece index on the square, or NO_PIECE if it is empty
+     */
+    int pieceAt(int square) {
+        return mailbox[square];
+    }
+
+    /**
+     * The king bitboard is updated on every placement, so finding the king is a
+     * single bit scan rather than a walk over the board
+     *
+     * @return the square of the color's king, or -1 if it has none
+     */
+    int kingSquare(ChessGame.TeamColor color) {
+        var king=pieces[pieceIndex(color, ChessPiece.PieceType.KING)];
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * Places a piece on an empty square
+     */
+    void putPiece(int square, int index) {
+        var bit=1L << square;
+        pieces[index]|=bit;
+        colors[index / 6]|=bit;
+        occupied|=bit;
+        mailbox[square]=(byte) index;
+        hash^=Zobrist.PIECE_SQUARE[index][square];
+        middlegame+=Evaluation.MIDDLEGAME[index][square];
+        endgame+=Evaluation.ENDGAME[index][square];
+        phase+=Evaluation.PHASE_WEIGHTS[index % 6];
+    }
+
+    /**
+     * Clears a square
+     *
+     * @return the piece index that was on the square, or NO_PIECE
+     */
+    int removePiece(int square) {
+        int index=mailbox[square];
+        if (index != NO_PIECE) {
+            var bit=~(1L << square);
+            pieces[index]&=bit;
+            colors[index / 6]&=bit;
+            occupied&=bit;
+            mailbox[square]=(byte) NO_PIECE;
+            hash^=Zobrist.PIECE_SQUARE[index][square];
+            middlegame-=Evaluation.MIDDLEGAME[index][square];
+            endgame-=Evaluation.ENDGAME[index][square];
+            phase-=Evaluation.PHASE_WEIGHTS[index % 6];
+        }
+        return index;
+    }
+
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    static int squareOf(ChessPosition position) {
+        if (!position.isOnBoard()) {
+            throw new IndexOutOfBoundsException("Position off the board: " + position);
+        }
+        return position.getSquare();
     }
 
     @Override
@@ -111,33 +194,23 @@ public class ChessBoard {
             return false;
         }
         var otherBoard=(ChessBoard) obj;
-        for (int row=0; row < 8; ++row) {
-            for (int col=0; col < 8; ++col) {
-                var piece=board[row][col];
-                var otherPiece=otherBoard.board[row][col];
-                if (piece == null && otherPiece == null) {
-                    continue;
-                }
-                if (piece == null) {
-                    return false;
-                }
-                if (!piece.equals(otherPiece)) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return hash == otherBoard.hash && Arrays.equals(pieces, otherBoard.pieces);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
     }
 
     @Override
     public String toString() {
         var sb=new StringBuilder().append('|');
-        for (int row=0; row < 8; ++row) {
+        for (int row=7; row > -1; --row) {
             for (int col=0; col < 8; ++col) {
-                var piece=board[row][col];
-                sb.append(piece == null ? "." : piece).append('|');
+                int index=mailbox[row * 8 + col];
+                sb.append(index == NO_PIECE ? '.' : PIECE_LETTERS.charAt(index)).append('|');
             }
-            if (row != 7) {
+            if (row != 0) {
                 sb.append("\n|");
             }
         }
@@ -146,22 +219,20 @@ public class ChessBoard {
 
     public static ChessBoard deserialize(String serializedGame) {
         ChessBoard board=new ChessBoard();
-        for (int x=0; x < 8; ++x) {
-            for (int y=0; y < 8; ++y) {
-                var piece=ChessPiece.deserialize(serializedGame.charAt(x * 8 + y));
-                board.addPiece(new ChessPosition(x + 1, y + 1), piece);
+        for (int square=0; square < 64; ++square) {
+            var index=PIECE_LETTERS.indexOf(serializedGame.charAt(square));
+            if (index != NO_PIECE) {
+                board.putPiece(square, index);
             }
         }
         return board;
     }
 
     public String serialize() {
-        var sb=new StringBuilder();
-        for (int row=7; row > -1; --row) {
-            for (int col=0; col < 8; ++col) {
-                var piece=board[row][col];
-                sb.append(piece == null ? "." : piece);
-            }
+        var sb=new StringBuilder(64);
+        for (int square=0; square < 64; ++square) {
+            int index=mailbox[square];
+            sb.append(index == NO_PIECE ? '.' : PIECE_LETTERS.charAt(index));
         }
         return sb.toString();
     }
@@ -3,8 +3,6 @@ package chess;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -13,16 +11,114 @@ import java.util.stream.Collectors;
  * signature of the existing methods.
  */
 public class ChessGame {
+    // squares where file + rank is even, a1 among them
+    private static final long DARK_SQUARES=0xAA55AA55AA55AA55L;
+    // FEN letter of each castling right, lowest bit first
+    private static final String CASTLING_LETTERS="KQkq";
+
     TeamColor currentTeamTurn=TeamColor.WHITE;
     ChessBoard board=new ChessBoard();
+    // MoveCalculator castling rights bits still available to either side
+    int castlingRights=MoveCalculator.ALL_CASTLING;
+    // square a pawn can capture onto en passant this turn, or MoveCalculator.NO_SQUARE
+    int enPassantSquare=MoveCalculator.NO_SQUARE;
+    // scratch space for move generation
+    private final transient int[] moveBuffer=new int[MoveCalculator.MAX_MOVES];
+    private final transient UndoStack undoStack=new UndoStack();
+    // plies since the last capture or pawn move
+    private transient int halfmoveClock;
+    // status() result for statusKey, dropped whenever a move is made or taken back
+    private transient GameStatus status;
+    private transient long statusKey;
 
+    /**
+     * Reads a game written by serialize. Strings holding only the board, as older
+     * versions wrote, get the castling rights the board allows and no en passant
+     * square.
+     */
     public static ChessGame deserialize(String serializedGame, TeamColor currentTeamTurn) {
         var game=new ChessGame();
         game.setTeamTurn(currentTeamTurn);
         game.setBoard(ChessBoard.deserialize(serializedGame));
+        if (serializedGame.length() > 64) {
+            var fields=serializedGame.substring(64).trim().split(" ");
+            game.castlingRights=parseCastlingRights(fields[0]);
+            game.enPassantSquare=fields.length > 1 ? parseSquare(fields[1]) : MoveCalculator.NO_SQUARE;
+        }
         return game;
     }
 
+    /**
+     * Loads a position from Forsyth-Edwards Notation. The piece placement, side to
+     * move, castling, en passant and halfmove clock fields are read; castling
+     * rights are taken from the board when the field is missing.
+     *
+     * @param fen position such as "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -"
+     * @return a game at that position
+     * @throws IllegalArgumentException if a field is malformed
+     */
+    public static ChessGame fromFen(String fen) {
+        var fields=fen.trim().split("\\s+");
+        var board=new ChessBoard();
+        int row=7;
+        int col=0;
+        for (var c : fields[0].toCharArray()) {
+            if (c == '/') {
+                --row;
+                col=0;
+            }
+            else if (c >= '1' && c <= '8') {
+                col+=c - '0';
+            }
+            else {
+                var piece=ChessPiece.deserialize(c);
+                if (piece == null || row < 0 || col > 7) {
+                    throw new IllegalArgumentException("Invalid FEN: " + fen);
+                }
+                board.putPiece(row * 8 + col++, ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+            }
+        }
+
+        var game=new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(fields.length > 1 && fields[1].equals("b") ? TeamColor.BLACK : TeamColor.WHITE);
+        if (fields.length > 2) {
+            game.castlingRights=parseCastlingRights(fields[2]);
+        }
+        if (fields.length > 3) {
+            game.enPassantSquare=parseSquare(fields[3]);
+        }
+        if (fields.length > 4) {
+            game.halfmoveClock=Integer.parseInt(fields[4]);
+        }
+        return game;
+    }
+
+    private static int parseCastlingRights(String field) {
+        var rights=0;
+        if (!field.equals("-")) {
+            for (var c : field.toCharArray()) {
+                var right=CASTLING_LETTERS.indexOf(c);
+                if (right == -1) {
+                    throw new IllegalArgumentException("Invalid castling rights: " + field);
+                }
+                rights|=1 << right;
+            }
+        }
+        return rights;
+    }
+
+    private static int parseSquare(String field) {
+        if (field.equals("-")) {
+            return MoveCalculator.NO_SQUARE;
+        }
+        if (field.length() != 2 || field.charAt(0) < 'a' || field.charAt(0) > 'h'
+                || field.charAt(1) < '1' || field.charAt(1) > '8') {
+            throw new IllegalArgumentException("Invalid square: " + field);
+        }
+        return (field.charAt(1) - '1') * 8 + (field.charAt(0) - 'a');
+    }
+
     public ChessGame() {
         board.resetBoard();
     }
@@ -41,6 +137,7 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         currentTeamTurn=team;
+        status=null;
     }
 
     /**
@@ -51,6 +148,29 @@ public class ChessGame {
         BLACK
     }
 
+    /**
+     * State of the game from the point of view of the team whose turn it is
+     */
+    public enum GameStatus {
+        ONGOING,
+        CHECK,
+        CHECKMATE,
+        STALEMATE,
+        // 50 moves by each side without a capture or pawn move
+        FIFTY_MOVE_RULE,
+        // the same position with the same side to move for the third time
+        THREEFOLD_REPETITION,
+        // neither side has the pieces left to deliver mate
+        INSUFFICIENT_MATERIAL;
+
+        /**
+         * @return True if no more moves should be played
+         */
+        public boolean isOver() {
+            return this != ONGOING && this != CHECK;
+        }
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -64,7 +184,14 @@ public class ChessGame {
             return Collections.emptyList();
         }
 
-        return piece.pieceMoves(board, startPosition).stream().filter(move -> !moveCausesCheck(move)).collect(Collectors.toSet());
+        var count=generateMoves(ChessBoard.squareOf(startPosition), moveBuffer, 0);
+        var moves=new HashSet<ChessMove>();
+        for (int i=0; i < count; ++i) {
+            if (!moveCausesCheck(moveBuffer[i])) {
+                moves.add(PackedMove.toChessMove(moveBuffer[i]));
+            }
+        }
+        return moves;
     }
 
     /**
@@ -90,32 +217,63 @@ public class ChessGame {
             throw new InvalidMoveException("Cannot capture friendly pieces!");
         }
 
-        var allMoves=pieceToMove.pieceMoves(board, move.getStartPosition());
-
-        if (!allMoves.contains(move)) {
+        if (!isPseudoLegal(PackedMove.fromChessMove(move))) {
             throw new InvalidMoveException("Not a valid move!");
         }
 
-        board.addPiece(move.getStartPosition(), null);
-        if (move.getPromotionPiece() == null) {
-            board.addPiece(move.getEndPosition(), pieceToMove);
+        var mover=currentTeamTurn;
+        makeMove(PackedMove.fromChessMove(move));
+
+        if (isInCheck(mover)) {
+            unmakeMove();
+            throw new InvalidMoveException("Move would result in check!");
         }
+    }
 
-        else {
-            board.addPiece(move.getEndPosition(), new ChessPiece(pieceToMove.getTeamColor(), move.getPromotionPiece()));
+    /**
+     * Takes back the most recent move, restoring any captured piece and whose turn
+     * it was
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (undoStack.size() == 0) {
+            throw new IllegalStateException("No move to undo!");
         }
+        var record=undoStack.pop();
+        var move=UndoStack.move(record);
+        var from=PackedMove.from(move);
+        var to=PackedMove.to(move);
 
-        if (isInCheck(currentTeamTurn)) {
-            if (placeToMove == null) {
-                board.addPiece(move.getEndPosition(), null);
-            }
-            else {
-                board.addPiece(move.getEndPosition(), new ChessPiece(pieceToMove.getTeamColor(), placeToMove.getPieceType()));
-            }
-            board.addPiece(move.getStartPosition(), new ChessPiece(pieceToMove.getTeamColor(), pieceToMove.getPieceType()));
-            throw new InvalidMoveException("Move would result in check!");
+        var priorEnPassantSquare=UndoStack.priorEnPassantSquare(record);
+
+        var placed=board.removePiece(to);
+        if (PackedMove.promotion(move) == null) {
+            board.putPiece(from, placed);
+        }
+        else {
+            board.putPiece(from, placed / 6 * 6 + ChessPiece.PieceType.PAWN.ordinal());
         }
-        setTeamTurn(currentTeamTurn == TeamColor.BLACK ? TeamColor.WHITE : TeamColor.BLACK);
+        var captured=UndoStack.captured(record);
+        if (captured != ChessBoard.NO_PIECE) {
+            var isEnPassant=placed % 6 == ChessPiece.PieceType.PAWN.ordinal() && to == priorEnPassantSquare;
+            board.putPiece(isEnPassant ? enPassantVictim(from, to) : to, captured);
+        }
+        if (isCastle(placed, from, to)) {
+            board.putPiece(castleRookHome(from, to), board.removePiece((from + to) / 2));
+        }
+        currentTeamTurn=UndoStack.priorTurn(record);
+        halfmoveClock=UndoStack.priorHalfmoveClock(record);
+        castlingRights=UndoStack.priorCastlingRights(record);
+        enPassantSquare=priorEnPassantSquare;
+        status=null;
+    }
+
+    /**
+     * @return how many moves can currently be taken back with unmakeMove
+     */
+    public int getMoveCount() {
+        return undoStack.size();
     }
 
     /**
@@ -125,28 +283,12 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        var moves=new HashSet<ChessPosition>();
-        ChessPosition kingPos=new ChessPosition(-1, -1);
-        for (int row=1; row < 9; ++row) {
-            for (int col=1; col < 9; ++col) {
-                var pos=new ChessPosition(row, col);
-                var piece=board.getPiece(pos);
-                if (piece == null) {
-                    continue;
-                }
-                if (piece.getTeamColor() == teamColor && piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    kingPos=pos;
-                }
-                if (piece.getTeamColor() == teamColor) {
-                    continue;
-                }
-                for (var move : piece.pieceMoves(board, pos)) {
-                    moves.add(move.getEndPosition());
-                }
-            }
+        var kingSquare=board.kingSquare(teamColor);
+        if (kingSquare == -1) {
+            return false;
         }
-
-        return kingPos.getColumn() != -1 && moves.contains(kingPos);
+        var enemy=teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+        return MoveCalculator.isSquareAttacked(board, kingSquare, enemy);
     }
 
     /**
@@ -156,48 +298,126 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        var blackMoves=new HashSet<ChessMove>();
-        var whiteMoves=new HashSet<ChessMove>();
-        getAllMoves(blackMoves, whiteMoves);
-        var moves=teamColor == TeamColor.BLACK ? blackMoves : whiteMoves;
-        for (var move : moves) {
-            if (!moveCausesCheck(move)) {
-                return false;
-            }
+        if (teamColor == currentTeamTurn) {
+            return status() == GameStatus.CHECKMATE;
         }
-        return true;
+        return isInCheck(teamColor) && !hasLegalMove(teamColor);
     }
 
     /**
      * Determines if the given team is in stalemate, which here is defined as having
-     * no valid moves
+     * no valid moves while not in check
      *
      * @param teamColor which team to check for stalemate
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        var kingsMoves=new HashSet<ChessMove>();
-        var enemyMoves=new HashSet<ChessMove>();
-        for (int row=1; row < 9; ++row) {
-            for (int col=1; col < 9; ++col) {
-                var pos=new ChessPosition(row, col);
-                var piece=board.getPiece(pos);
-                if (piece == null) {
-                    continue;
-                }
-                if (piece.getTeamColor() == teamColor) {
-                    if (piece.getPieceType() == ChessPiece.PieceType.KING) {
-                        kingsMoves.addAll(piece.pieceMoves(board, pos));
-                    }
-                    else if (!piece.pieceMoves(board, pos).isEmpty()) {
-                        return false;
-                    }
-                } else {
-                    enemyMoves.addAll(piece.pieceMoves(board, pos));
+        if (teamColor == currentTeamTurn) {
+            return status() == GameStatus.STALEMATE;
+        }
+        return !isInCheck(teamColor) && !hasLegalMove(teamColor);
+    }
+
+    /**
+     * Works out whether the game is over, and how, for the team whose turn it is.
+     * Checkmate and stalemate take precedence over the draw rules. The result is
+     * cached until the next move, so calling this after every move costs one
+     * legal move search, which stops at the first legal move found.
+     * <p>
+     * Repetitions are only counted over moves made since the board was set.
+     *
+     * @return the game status
+     */
+    public GameStatus status() {
+        var key=positionKey();
+        if (status == null || statusKey != key) {
+            status=computeStatus();
+            statusKey=key;
+        }
+        return status;
+    }
+
+    private GameStatus computeStatus() {
+        var inCheck=isInCheck(currentTeamTurn);
+        if (!hasLegalMove(currentTeamTurn)) {
+            return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        }
+        if (hasInsufficientMaterial()) {
+            return GameStatus.INSUFFICIENT_MATERIAL;
+        }
+        if (halfmoveClock >= 100) {
+            return GameStatus.FIFTY_MOVE_RULE;
+        }
+        if (isThreefoldRepetition()) {
+            return GameStatus.THREEFOLD_REPETITION;
+        }
+        return inCheck ? GameStatus.CHECK : GameStatus.ONGOING;
+    }
+
+    private boolean hasLegalMove(TeamColor teamColor) {
+        var own=board.colors[teamColor.ordinal()];
+        while (own != 0) {
+            var square=Long.numberOfTrailingZeros(own);
+            own&=own - 1;
+            var count=generateMoves(square, moveBuffer, 0);
+            for (int i=0; i < count; ++i) {
+                if (!moveCausesCheck(moveBuffer[i])) {
+                    return true;
                 }
             }
         }
-        return kingsMoves.stream().filter(enemyMoves::contains).collect(Collectors.toSet()).isEmpty();
+        return false;
+    }
+
+    private boolean hasInsufficientMaterial() {
+        long heavy=0;
+        long knights=0;
+        long bishops=0;
+        for (var color : TeamColor.values()) {
+            heavy|=board.pieces[ChessBoard.pieceIndex(color, ChessPiece.PieceType.QUEEN)]
+                    | board.pieces[ChessBoard.pieceIndex(color, ChessPiece.PieceType.ROOK)]
+                    | board.pieces[ChessBoard.pieceIndex(color, ChessPiece.PieceType.PAWN)];
+            knights|=board.pieces[ChessBoard.pieceIndex(color, ChessPiece.PieceType.KNIGHT)];
+            bishops|=board.pieces[ChessBoard.pieceIndex(color, ChessPiece.PieceType.BISHOP)];
+        }
+        if (heavy != 0) {
+            return false;
+        }
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+        // any number of bishops that all stand on one square color can't mate
+        return knights == 0 && ((bishops & DARK_SQUARES) == 0 || (bishops & ~DARK_SQUARES) == 0);
+    }
+
+    private boolean isThreefoldRepetition() {
+        return priorOccurrences(2) == 2;
+    }
+
+    /**
+     * Counts earlier occurrences of the current position, looking back no further
+     * than the last capture or pawn move
+     *
+     * @param limit stop counting once this many are found
+     * @return how many times the position occurred before, at most limit
+     */
+    int priorOccurrences(int limit) {
+        var key=positionKey();
+        var reversible=Math.min(halfmoveClock, undoStack.size());
+        var seen=0;
+        for (int pliesAgo=2; pliesAgo <= reversible && seen < limit; pliesAgo+=2) {
+            if (undoStack.keyBefore(pliesAgo) == key) {
+                ++seen;
+            }
+        }
+        return seen;
+    }
+
+    /**
+     * @return plies since the last capture or pawn move
+     */
+    int getHalfmoveClock() {
+        return halfmoveClock;
     }
 
     /**
@@ -207,6 +427,47 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board=board;
+        castlingRights=MoveCalculator.castlingRightsFor(board);
+        enPassantSquare=MoveCalculator.NO_SQUARE;
+        undoStack.clear();
+        halfmoveClock=0;
+        status=null;
+    }
+
+    /**
+     * Gets a 64-bit Zobrist key for the current position: the board's piece
+     * placement, the side to move, the castling rights and the en passant file.
+     * Equal positions always have equal keys, so the key can be used for position
+     * caches and repetition detection.
+     *
+     * @return the position key
+     */
+    public long positionKey() {
+        var key=board.hash ^ Zobrist.CASTLING[castlingRights];
+        if (currentTeamTurn == TeamColor.BLACK) {
+            key^=Zobrist.BLACK_TO_MOVE;
+        }
+        if (enPassantSquare != MoveCalculator.NO_SQUARE) {
+            key^=Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+        }
+        return key;
+    }
+
+    /**
+     * Copies the game, including the moves that can be taken back, so the copy can
+     * be played on by another thread
+     *
+     * @return an independent game in the same position
+     */
+    public ChessGame copy() {
+        var copy=new ChessGame();
+        copy.board=board.copy();
+        copy.currentTeamTurn=currentTeamTurn;
+        copy.castlingRights=castlingRights;
+        copy.enPassantSquare=enPassantSquare;
+        copy.halfmoveClock=halfmoveClock;
+        copy.undoStack.copyFrom(undoStack);
+        return copy;
     }
 
     /**
@@ -218,43 +479,95 @@ public class ChessGame {
         return board;
     }
 
-    private void getAllMoves(Set<ChessMove> blackMoves, Set<ChessMove> whiteMoves) {
-        for (int row=1; row < 9; ++row) {
-            for (int col=1; col < 9; ++col) {
-                var pos=new ChessPosition(row, col);
-                var piece=board.getPiece(pos);
-                if (piece == null) {
-                    continue;
-                }
-                if (piece.getTeamColor() == TeamColor.BLACK) {
-                    blackMoves.addAll(piece.pieceMoves(board, pos));
-                }
-                else {
-                    whiteMoves.addAll(piece.pieceMoves(board, pos));
-                }
+    private boolean isPseudoLegal(int move) {
+        var count=generateMoves(PackedMove.from(move), moveBuffer, 0);
+        for (int i=0; i < count; ++i) {
+            if (moveBuffer[i] == move) {
+                return true;
             }
         }
+        return false;
     }
 
-    private boolean moveCausesCheck(ChessMove move) {
-        var pieceToMove=board.getPiece(move.getStartPosition());
-        var pieceAtEndPos=board.getPiece(move.getEndPosition());
+    /**
+     * Plays a pseudo-legal packed move without validating it, recording what is
+     * needed to take it back with unmakeMove
+     *
+     * @param move packed move whose start square holds a piece
+     */
+    void makeMove(int move) {
+        var from=PackedMove.from(move);
+        var to=PackedMove.to(move);
+        var promotion=PackedMove.promotion(move);
+
+        var priorKey=positionKey();
+        var moved=board.removePiece(from);
+        var captured=board.removePiece(to);
+        var isPawn=moved % 6 == ChessPiece.PieceType.PAWN.ordinal();
+        if (isPawn && to == enPassantSquare && captured == ChessBoard.NO_PIECE) {
+            captured=board.removePiece(enPassantVictim(from, to));
+        }
+        board.putPiece(to, promotion == null ? moved : moved / 6 * 6 + promotion.ordinal());
+        if (isCastle(moved, from, to)) {
+            board.putPiece((from + to) / 2, board.removePiece(castleRookHome(from, to)));
+        }
 
-        var startPos=move.getStartPosition();
-        var endPos=move.getEndPosition();
+        undoStack.push(move, captured, currentTeamTurn, halfmoveClock, castlingRights, enPassantSquare, priorKey);
+        currentTeamTurn=currentTeamTurn == TeamColor.BLACK ? TeamColor.WHITE : TeamColor.BLACK;
+        halfmoveClock=captured != ChessBoard.NO_PIECE || isPawn ? 0 : halfmoveClock + 1;
+        castlingRights&=MoveCalculator.CASTLING_MASK[from] & MoveCalculator.CASTLING_MASK[to];
+        enPassantSquare=MoveCalculator.NO_SQUARE;
+        if (isPawn && Math.abs(to - from) == 16) {
+            // only record the square when a pawn can actually take, so positions
+            // that differ in nothing else keep the same key
+            var passed=(from + to) / 2;
+            var enemyPawns=board.pieces[ChessBoard.pieceIndex(currentTeamTurn, ChessPiece.PieceType.PAWN)];
+            if ((MoveCalculator.PAWN_ATTACKS[moved / 6][passed] & enemyPawns) != 0) {
+                enPassantSquare=passed;
+            }
+        }
+        status=null;
+    }
 
-        var teamColor=pieceToMove.getTeamColor();
-        var newPieceType=move.getPromotionPiece() != null ? move.getPromotionPiece() : pieceToMove.getPieceType();
-        var newPiece=new ChessPiece(teamColor, newPieceType);
+    /**
+     * Appends the pseudo-legal moves of the piece on a square, castling and en
+     * passant included
+     *
+     * @return the new number of moves in the buffer
+     */
+    int generateMoves(int square, int[] moves, int count) {
+        count=MoveCalculator.generateMoves(board, square, moves, count);
+        return MoveCalculator.generateSpecialMoves(board, square, castlingRights, enPassantSquare, moves, count);
+    }
 
-        board.addPiece(startPos, null);
-        board.addPiece(endPos, newPiece);
+    /**
+     * Appends every pseudo-legal move of the team whose turn it is
+     *
+     * @return the new number of moves in the buffer
+     */
+    int generateAllMoves(int[] moves, int count) {
+        return MoveCalculator.generateAllMoves(board, currentTeamTurn, castlingRights, enPassantSquare, moves, count);
+    }
 
-        boolean causesCheck=isInCheck(teamColor);
+    private static boolean isCastle(int piece, int from, int to) {
+        return piece % 6 == ChessPiece.PieceType.KING.ordinal() && (to - from == 2 || from - to == 2);
+    }
 
-        board.addPiece(startPos, pieceToMove);
-        board.addPiece(endPos, pieceAtEndPos);
+    // the rook's corner for a castling king move; it lands on the square the king crosses
+    private static int castleRookHome(int from, int to) {
+        return to > from ? from + 3 : from - 4;
+    }
 
+    // a pawn taken en passant stands beside the capturing pawn's start square
+    private static int enPassantVictim(int from, int to) {
+        return from / 8 * 8 + to % 8;
+    }
+
+    private boolean moveCausesCheck(int move) {
+        var mover=board.pieceAt(PackedMove.from(move)) / 6 == TeamColor.WHITE.ordinal() ? TeamColor.WHITE : TeamColor.BLACK;
+        makeMove(move);
+        boolean causesCheck=isInCheck(mover);
+        unmakeMove();
         return causesCheck;
     }
 
@@ -267,7 +580,15 @@ public class ChessGame {
             return false;
         }
         var otherGame=(ChessGame) obj;
-        return board.equals(otherGame.board);
+        return currentTeamTurn == otherGame.currentTeamTurn
+                && castlingRights == otherGame.castlingRights
+                && enPassantSquare == otherGame.enPassantSquare
+                && board.equals(otherGame.board);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(positionKey());
     }
 
     @Override
@@ -275,7 +596,27 @@ public class ChessGame {
         return board.toString();
     }
 
+    /**
+     * @return the board as written by ChessBoard.serialize, then the castling
+     * rights and en passant square as in FEN, e.g. "RNBQKBNR...rnbqkbnr KQkq e3"
+     */
     public String serialize() {
-        return board.serialize();
+        var sb=new StringBuilder(board.serialize()).append(' ');
+        if (castlingRights == 0) {
+            sb.append('-');
+        }
+        for (int right=0; right < 4; ++right) {
+            if ((castlingRights & (1 << right)) != 0) {
+                sb.append(CASTLING_LETTERS.charAt(right));
+            }
+        }
+        sb.append(' ');
+        if (enPassantSquare == MoveCalculator.NO_SQUARE) {
+            sb.append('-');
+        }
+        else {
+            sb.append((char) ('a' + enPassantSquare % 8)).append((char) ('1' + enPassantSquare / 8));
+        }
+        return sb.toString();
     }
 }
@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents moving a chess piece on a chessboard
  * <p>
@@ -67,7 +65,9 @@ public class ChessMove {
 
     @Override
     public int hashCode() {
-        return Objects.hash(startPos, endPos, promotionType);
+        // same layout as PackedMove, so distinct for every on-board move
+        var promotion=promotionType == null ? 0 : promotionType.ordinal() + 1;
+        return startPos.hashCode() ^ endPos.hashCode() << 6 ^ promotion << 12;
     }
 
     @Override
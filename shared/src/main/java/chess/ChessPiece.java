@@ -9,6 +9,19 @@ import java.util.Collection;
  * signature of the existing methods.
  */
 public class ChessPiece {
+    // one shared instance per color and type, indexed like ChessBoard.pieceIndex
+    private static final ChessPiece[] INSTANCES=new ChessPiece[12];
+    // serialized letter of each instance
+    private static final String LETTERS="KQBNRPkqbnrp";
+
+    static {
+        for (var color : ChessGame.TeamColor.values()) {
+            for (var type : PieceType.values()) {
+                INSTANCES[color.ordinal() * 6 + type.ordinal()]=new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor color;
     private final PieceType type;
 
@@ -17,22 +30,29 @@ public class ChessPiece {
         this.type=type;
     }
 
+    /**
+     * Pieces are immutable, so the engine shares one instance per color and
+     * type instead of allocating
+     *
+     * @return the shared piece of this color and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor color, PieceType type) {
+        return INSTANCES[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * @return the shared piece for a ChessBoard piece index
+     */
+    static ChessPiece of(int index) {
+        return INSTANCES[index];
+    }
+
+    /**
+     * @return the shared piece for a serialized letter, or null if it isn't one
+     */
     public static ChessPiece deserialize(char piece) {
-        return switch (piece) {
-            case 'r' -> new ChessPiece(ChessGame.TeamColor.BLACK, PieceType.ROOK);
-            case 'n' -> new ChessPiece(ChessGame.TeamColor.BLACK, PieceType.KNIGHT);
-            case 'b' -> new ChessPiece(ChessGame.TeamColor.BLACK, PieceType.BISHOP);
-            case 'k' -> new ChessPiece(ChessGame.TeamColor.BLACK, PieceType.KING);
-            case 'q' -> new ChessPiece(ChessGame.TeamColor.BLACK, PieceType.QUEEN);
-            case 'p' -> new ChessPiece(ChessGame.TeamColor.BLACK, PieceType.PAWN);
-            case 'R' -> new ChessPiece(ChessGame.TeamColor.WHITE, PieceType.ROOK);
-            case 'N' -> new ChessPiece(ChessGame.TeamColor.WHITE, PieceType.KNIGHT);
-            case 'B' -> new ChessPiece(ChessGame.TeamColor.WHITE, PieceType.BISHOP);
-            case 'K' -> new ChessPiece(ChessGame.TeamColor.WHITE, PieceType.KING);
-            case 'Q' -> new ChessPiece(ChessGame.TeamColor.WHITE, PieceType.QUEEN);
-            case 'P' -> new ChessPiece(ChessGame.TeamColor.WHITE, PieceType.PAWN);
-            default -> null;
-        };
+        var index=LETTERS.indexOf(piece);
+        return index < 0 ? null : INSTANCES[index];
     }
 
     /**
@@ -95,6 +115,11 @@ public class ChessPiece {
         return otherPiece.getPieceType() == type && otherPiece.getTeamColor() == color;
     }
 
+    @Override
+    public int hashCode() {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
     @Override
     public String toString() {
         int offset=color == ChessGame.TeamColor.BLACK ? 0 : 32;
@@ -9,6 +9,15 @@ package chess;
 public class ChessPosition {
     private static final char[] FILE_NAMES=new char[]{'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h'};
     private static final char[] RANK_NAMES=new char[]{'1', '2', '3', '4', '5', '6', '7', '8'};
+    // the 64 on-board positions, indexed by square
+    private static final ChessPosition[] SQUARES=new ChessPosition[64];
+
+    static {
+        for (int square=0; square < 64; ++square) {
+            SQUARES[square]=new ChessPosition(square / 8 + 1, square % 8 + 1);
+        }
+    }
+
     private final int row;
     private final int column;
 
@@ -17,6 +26,43 @@ public class ChessPosition {
         this.row=row;
     }
 
+    /**
+     * Positions are immutable, so on-board positions come from a shared table
+     * instead of being allocated
+     *
+     * @return the position at this row and column, 1 being the bottom row and
+     * left column
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[(row - 1) * 8 + (col - 1)];
+    }
+
+    /**
+     * @param square square index, 0 (a1) to 63 (h8)
+     * @return the shared position for that square
+     */
+    public static ChessPosition of(int square) {
+        return SQUARES[square];
+    }
+
+    /**
+     * @return the square index, 0 (a1) to 63 (h8); only meaningful for
+     * on-board positions
+     */
+    public int getSquare() {
+        return (row - 1) * 8 + (column - 1);
+    }
+
+    /**
+     * @return whether the position is on the board
+     */
+    public boolean isOnBoard() {
+        return row >= 1 && row <= 8 && column >= 1 && column <= 8;
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -47,7 +93,8 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return FILE_NAMES[column - 1] + (RANK_NAMES[row - 1] >> 4);
+        // distinct for every on-board position
+        return getSquare();
     }
 
     @Override
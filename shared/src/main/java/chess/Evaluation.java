@@ -0,0 +1,241 @@
+package chess;
+
+/**
+ * Static evaluation of a position for the search, in centipawns from the point of
+ * view of the team whose turn it is.
+ * <p>
+ * Material and piece-square values come in a middlegame and an endgame flavor and
+ * are blended by how much material is left. Both sums, and the material phase,
+ * are kept up to date by ChessBoard as pieces are placed and removed, so reading
+ * them costs nothing at a leaf. Pawn structure (doubled, isolated and passed
+ * pawns) and the king's pawn shield are worked out from the bitboards on each
+ * call.
+ */
+final class Evaluation {
+    // indexed by PieceType ordinal; the king is never traded so it counts nothing
+    static final int[] PIECE_VALUES=new int[]{0, 900, 330, 320, 500, 100};
+    private static final int[] ENDGAME_VALUES=new int[]{0, 950, 340, 300, 520, 120};
+    // how much each piece type counts toward the middlegame, indexed by PieceType ordinal
+    static final int[] PHASE_WEIGHTS=new int[]{0, 4, 1, 1, 2, 0};
+    // phase with every piece on the board
+    static final int MAX_PHASE=24;
+
+    // piece-square tables from white's side, a8 first so they read like a board,
+    // indexed by PieceType ordinal
+    private static final int[][] MIDDLEGAME_TABLES=new int[][]{
+        {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+        },
+        {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+        },
+        {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+        },
+        {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+        },
+        {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+        },
+        {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+        }
+    };
+
+    // only the king and pawns play differently once the queens are off
+    private static final int[] ENDGAME_KING_TABLE=new int[]{
+        -50, -40, -30, -20, -20, -30, -40, -50,
+        -30, -20, -10, 0, 0, -10, -20, -30,
+        -30, -10, 20, 30, 30, 20, -10, -30,
+        -30, -10, 30, 40, 40, 30, -10, -30,
+        -30, -10, 30, 40, 40, 30, -10, -30,
+        -30, -10, 20, 30, 30, 20, -10, -30,
+        -30, -30, 0, 0, 0, 0, -30, -30,
+        -50, -30, -30, -30, -30, -30, -30, -50
+    };
+    private static final int[] ENDGAME_PAWN_TABLE=new int[]{
+        0, 0, 0, 0, 0, 0, 0, 0,
+        80, 80, 80, 80, 80, 80, 80, 80,
+        50, 50, 50, 50, 50, 50, 50, 50,
+        30, 30, 30, 30, 30, 30, 30, 30,
+        20, 20, 20, 20, 20, 20, 20, 20,
+        10, 10, 10, 10, 10, 10, 10, 10,
+        10, 10, 10, 10, 10, 10, 10, 10,
+        0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    /**
+     * Material plus piece-square value of each piece on each square, positive for
+     * white and negative for black, indexed by ChessBoard piece index then square
+     */
+    static final int[][] MIDDLEGAME=new int[12][64];
+    static final int[][] ENDGAME=new int[12][64];
+
+    private static final int DOUBLED_PAWN=12;
+    private static final int ISOLATED_PAWN=12;
+    // indexed by how many ranks the pawn has advanced
+    private static final int[] PASSED_PAWN_MIDDLEGAME=new int[]{0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_PAWN_ENDGAME=new int[]{0, 10, 20, 35, 55, 80, 110, 0};
+    // per pawn on one of the three squares in front of the king
+    private static final int PAWN_SHIELD=12;
+
+    private static final long[] FILES=new long[8];
+    // files either side of each file
+    private static final long[] ADJACENT_FILES=new long[8];
+    // squares that must be free of enemy pawns for a pawn to be passed, indexed by
+    // TeamColor.ordinal(), then square
+    private static final long[][] PASSED_MASKS=new long[2][64];
+    // the three squares in front of a king, indexed by TeamColor.ordinal(), then square
+    private static final long[][] SHIELD_MASKS=new long[2][64];
+
+    static {
+        for (int type=0; type < 6; ++type) {
+            for (int square=0; square < 64; ++square) {
+                // the tables list a8 first, so white's square is flipped vertically and
+                // black's is read as is
+                var whiteEntry=(7 - square / 8) * 8 + square % 8;
+                var middlegame=MIDDLEGAME_TABLES[type];
+                var endgame=type == ChessPiece.PieceType.KING.ordinal() ? ENDGAME_KING_TABLE
+                        : type == ChessPiece.PieceType.PAWN.ordinal() ? ENDGAME_PAWN_TABLE
+                        : middlegame;
+                MIDDLEGAME[type][square]=PIECE_VALUES[type] + middlegame[whiteEntry];
+                ENDGAME[type][square]=ENDGAME_VALUES[type] + endgame[whiteEntry];
+                MIDDLEGAME[6 + type][square]=-(PIECE_VALUES[type] + middlegame[square]);
+                ENDGAME[6 + type][square]=-(ENDGAME_VALUES[type] + endgame[square]);
+            }
+        }
+        for (int file=0; file < 8; ++file) {
+            FILES[file]=0x0101010101010101L << file;
+        }
+        for (int file=0; file < 8; ++file) {
+            ADJACENT_FILES[file]=(file > 0 ? FILES[file - 1] : 0) | (file < 7 ? FILES[file + 1] : 0);
+        }
+        for (int square=0; square < 64; ++square) {
+            var row=square / 8;
+            var file=square % 8;
+            var span=FILES[file] | ADJACENT_FILES[file];
+            // every rank above the pawn for white, below it for black
+            PASSED_MASKS[0][square]=row == 7 ? 0 : span & (-1L << ((row + 1) * 8));
+            PASSED_MASKS[1][square]=row == 0 ? 0 : span & (-1L >>> ((8 - row) * 8));
+            SHIELD_MASKS[0][square]=row == 7 ? 0 : span & (0xffL << ((row + 1) * 8));
+            SHIELD_MASKS[1][square]=row == 0 ? 0 : span & (0xffL << ((row - 1) * 8));
+        }
+    }
+
+    private Evaluation() {
+    }
+
+    static int evaluate(ChessGame game) {
+        var board=game.board;
+        var phase=Math.min(board.phase, MAX_PHASE);
+        var middlegame=board.middlegame;
+        var endgame=board.endgame;
+
+        var pieces=board.pieces;
+        var whitePawns=pieces[ChessPiece.PieceType.PAWN.ordinal()];
+        var blackPawns=pieces[6 + ChessPiece.PieceType.PAWN.ordinal()];
+        var whiteStructure=pawnStructure(whitePawns, blackPawns, 0);
+        var blackStructure=pawnStructure(blackPawns, whitePawns, 1);
+        middlegame+=middlegameHalf(whiteStructure) - middlegameHalf(blackStructure);
+        endgame+=endgameHalf(whiteStructure) - endgameHalf(blackStructure);
+        middlegame+=pawnShield(board, 0, whitePawns) - pawnShield(board, 1, blackPawns);
+
+        var score=(middlegame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE;
+        return game.currentTeamTurn == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+
+    /**
+     * @return the value of the piece with the given ChessBoard piece index
+     */
+    static int pieceValue(int index) {
+        return PIECE_VALUES[index % 6];
+    }
+
+    // both halves packed into one long so neither needs its own pass over the pawns
+    private static long pawnStructure(long pawns, long enemyPawns, int color) {
+        var middlegame=0;
+        var endgame=0;
+        for (int file=0; file < 8; ++file) {
+            var onFile=Long.bitCount(pawns & FILES[file]);
+            if (onFile == 0) {
+                continue;
+            }
+            var penalty=(onFile - 1) * DOUBLED_PAWN;
+            if ((pawns & ADJACENT_FILES[file]) == 0) {
+                penalty+=onFile * ISOLATED_PAWN;
+            }
+            middlegame-=penalty;
+            endgame-=penalty;
+        }
+        var remaining=pawns;
+        while (remaining != 0) {
+            var square=Long.numberOfTrailingZeros(remaining);
+            remaining&=remaining - 1;
+            if ((PASSED_MASKS[color][square] & enemyPawns) == 0) {
+                var advanced=color == 0 ? square / 8 : 7 - square / 8;
+                middlegame+=PASSED_PAWN_MIDDLEGAME[advanced];
+                endgame+=PASSED_PAWN_ENDGAME[advanced];
+            }
+        }
+        return ((long) middlegame << 32) | (endgame & 0xffffffffL);
+    }
+
+    private static int middlegameHalf(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int endgameHalf(long packed) {
+        return (int) packed;
+    }
+
+    private static int pawnShield(ChessBoard board, int color, long pawns) {
+        var king=board.pieces[color * 6 + ChessPiece.PieceType.KING.ordinal()];
+        if (king == 0) {
+            return 0;
+        }
+        return PAWN_SHIELD * Long.bitCount(SHIELD_MASKS[color][Long.numberOfTrailingZeros(king)] & pawns);
+    }
+}
@@ -0,0 +1,85 @@
+package chess;
+
+/**
+ * Packs a game into a fixed 35 byte array for storage, and back.
+ * <p>
+ * Layout: byte 0 is the format version. Bytes 1-32 hold two squares each,
+ * square 2i in the low nibble and 2i+1 in the high nibble, where a nibble is
+ * 0 for an empty square or ChessBoard piece index + 1. Byte 33 holds flags:
+ * bit 0 is set when black is to move, and bits 1-4 are the MoveCalculator
+ * castling rights mask. Byte 34 is the en passant target square, or 0xff for
+ * none.
+ * <p>
+ * Format 1 left the castling bits and en passant byte unset, so those games
+ * decode with the castling rights their board allows.
+ * <p>
+ * Decoding places pieces straight into the board's bitboards, so it builds
+ * no ChessPiece objects and no strings.
+ */
+public final class GameCodec {
+    public static final byte FORMAT_VERSION=2;
+    public static final int LENGTH=35;
+
+    private static final int FLAGS=33;
+    private static final int EN_PASSANT=34;
+    private static final int BLACK_TO_MOVE=1;
+    private static final int CASTLING_SHIFT=1;
+    private static final int NO_EN_PASSANT=0xff;
+
+    private GameCodec() {
+    }
+
+    public static byte[] encode(ChessGame game) {
+        var bytes=new byte[LENGTH];
+        bytes[0]=FORMAT_VERSION;
+        var mailbox=game.board.mailbox;
+        for (int square=0; square < 64; square+=2) {
+            // NO_PIECE is -1, so empty squares become nibble 0
+            bytes[1 + square / 2]=(byte) ((mailbox[square] + 1) | (mailbox[square + 1] + 1) << 4);
+        }
+        bytes[FLAGS]=(byte) ((game.currentTeamTurn == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0)
+                | game.castlingRights << CASTLING_SHIFT);
+        bytes[EN_PASSANT]=(byte) (game.enPassantSquare == MoveCalculator.NO_SQUARE ? NO_EN_PASSANT : game.enPassantSquare);
+        return bytes;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes aren't a game in this format
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes == null || bytes.length != LENGTH || bytes[0] < 1 || bytes[0] > FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported game encoding");
+        }
+        var board=new ChessBoard();
+        for (int square=0; square < 64; square+=2) {
+            var pair=bytes[1 + square / 2] & 0xff;
+            placeNibble(board, square, pair & 0xf);
+            placeNibble(board, square + 1, pair >>> 4);
+        }
+
+        var game=new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn((bytes[FLAGS] & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        if (bytes[0] > 1) {
+            game.castlingRights=(bytes[FLAGS] >>> CASTLING_SHIFT) & MoveCalculator.ALL_CASTLING;
+            var enPassant=bytes[EN_PASSANT] & 0xff;
+            if (enPassant != NO_EN_PASSANT) {
+                if (enPassant > 63) {
+                    throw new IllegalArgumentException("Unsupported game encoding");
+                }
+                game.enPassantSquare=enPassant;
+            }
+        }
+        return game;
+    }
+
+    private static void placeNibble(ChessBoard board, int square, int nibble) {
+        if (nibble == 0) {
+            return;
+        }
+        if (nibble > 12) {
+            throw new IllegalArgumentException("Unsupported game encoding");
+        }
+        board.putPiece(square, nibble - 1);
+    }
+}
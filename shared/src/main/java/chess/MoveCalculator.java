@@ -1,12 +1,21 @@
 package chess;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
-
-enum TakeStatus {CANT_TAKE, CAN_TAKE, MUST_TAKE}
 
+/**
+ * Generates pseudo-legal moves straight from the ChessBoard bitboards.
+ * <p>
+ * Moves are written as {@link PackedMove} ints into a caller supplied buffer,
+ * so generating moves does not allocate. {@link #getMoves} adapts the result to
+ * ChessMove objects for the public piece API.
+ */
 public class MoveCalculator {
+    /**
+     * Upper bound on the number of pseudo-legal moves in any reachable position
+     */
+    public static final int MAX_MOVES=256;
+
     private static final ChessPiece.PieceType[] PROMOTIONS=new ChessPiece.PieceType[]{
         ChessPiece.PieceType.QUEEN,
         ChessPiece.PieceType.BISHOP,
@@ -14,295 +23,352 @@ public class MoveCalculator {
         ChessPiece.PieceType.ROOK
     };
 
+    private static final ChessPiece.PieceType[] TYPES=ChessPiece.PieceType.values();
+
+    private static final int KING=ChessPiece.PieceType.KING.ordinal();
+    private static final int QUEEN=ChessPiece.PieceType.QUEEN.ordinal();
+    private static final int BISHOP=ChessPiece.PieceType.BISHOP.ordinal();
+    private static final int KNIGHT=ChessPiece.PieceType.KNIGHT.ordinal();
+    private static final int ROOK=ChessPiece.PieceType.ROOK.ordinal();
+    private static final int PAWN=ChessPiece.PieceType.PAWN.ordinal();
+
+    /**
+     * Castling rights bits, combined into one int mask
+     */
+    public static final int WHITE_KINGSIDE=1;
+    public static final int WHITE_QUEENSIDE=2;
+    public static final int BLACK_KINGSIDE=4;
+    public static final int BLACK_QUEENSIDE=8;
+    public static final int ALL_CASTLING=15;
+
+    /**
+     * En passant square value when no en passant capture is possible
+     */
+    public static final int NO_SQUARE=-1;
+
+    // rights that survive a move from or to each square: moving a king or rook,
+    // or capturing a rook, gives up castling on that side for good
+    static final int[] CASTLING_MASK=new int[64];
+
+    // most moves a single piece can have: a queen in the middle of an open board
+    private static final int MAX_PIECE_MOVES=27;
+
+    // ray directions, positive (toward h8) first
+    private static final int NORTH=0;
+    private static final int EAST=1;
+    private static final int NORTH_EAST=2;
+    private static final int NORTH_WEST=3;
+    private static final int SOUTH=4;
+    private static final int WEST=5;
+    private static final int SOUTH_WEST=6;
+    private static final int SOUTH_EAST=7;
+    private static final int[][] DIRECTIONS=new int[][]{
+        {1, 0}, {0, 1}, {1, 1}, {1, -1}, {-1, 0}, {0, -1}, {-1, -1}, {-1, 1}
+    };
+
+    static final long[] KNIGHT_ATTACKS=new long[64];
+    static final long[] KING_ATTACKS=new long[64];
+    // indexed by TeamColor.ordinal(), then square
+    static final long[][] PAWN_ATTACKS=new long[2][64];
+    // indexed by direction, then square; excludes the square itself
+    static final long[][] RAYS=new long[8][64];
+
+    static {
+        var knightJumps=new int[][]{{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        for (int square=0; square < 64; ++square) {
+            var row=square / 8;
+            var col=square % 8;
+            for (var jump : knightJumps) {
+                KNIGHT_ATTACKS[square]|=bit(row + jump[0], col + jump[1]);
+            }
+            for (int dir=0; dir < 8; ++dir) {
+                KING_ATTACKS[square]|=bit(row + DIRECTIONS[dir][0], col + DIRECTIONS[dir][1]);
+                for (int step=1; step < 8; ++step) {
+                    RAYS[dir][square]|=bit(row + DIRECTIONS[dir][0] * step, col + DIRECTIONS[dir][1] * step);
+                }
+            }
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square]=bit(row + 1, col - 1) | bit(row + 1, col + 1);
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square]=bit(row - 1, col - 1) | bit(row - 1, col + 1);
+            CASTLING_MASK[square]=ALL_CASTLING;
+        }
+        CASTLING_MASK[4]&=~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[7]&=~WHITE_KINGSIDE;
+        CASTLING_MASK[0]&=~WHITE_QUEENSIDE;
+        CASTLING_MASK[60]&=~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[63]&=~BLACK_KINGSIDE;
+        CASTLING_MASK[56]&=~BLACK_QUEENSIDE;
+    }
+
     private MoveCalculator() {
     }
 
     public static Collection<ChessMove> getMoves(ChessBoard board, ChessPosition pos, ChessPiece piece) {
-        var type=piece.getPieceType();
-        MoveFunction moveFunction=null;
-        switch (type) {
-            case ROOK -> moveFunction=MoveCalculator::rookMoves;
-            case KNIGHT -> moveFunction=MoveCalculator::knightMoves;
-            case BISHOP -> moveFunction=MoveCalculator::bishopMoves;
-            case KING -> moveFunction=MoveCalculator::kingMoves;
-            case QUEEN -> moveFunction=MoveCalculator::queenMoves;
-            case PAWN -> moveFunction=MoveCalculator::pawnMoves;
-        }
-
-        if (moveFunction == null) {
-            return new HashSet<ChessMove>();
+        var buffer=new int[MAX_PIECE_MOVES];
+        var count=generateMoves(board, ChessBoard.squareOf(pos),
+                ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType()), buffer, 0);
+        var moves=new ArrayList<ChessMove>(count);
+        for (int i=0; i < count; ++i) {
+            moves.add(PackedMove.toChessMove(buffer[i]));
         }
-
-        var moveManager=new MoveManager(board, piece, pos);
-
-        return moveFunction.getMoves(moveManager);
+        return moves;
     }
 
-    private static Set<ChessMove> rookMoves(MoveManager moveManager) {
-        var moves=moveManager.moves;
-        var pos=moveManager.getStartPos();
-
-        interface MoveChecker {
-            boolean checkMove(int row, int col);
+    /**
+     * Appends the pseudo-legal moves of every piece of one color
+     *
+     * @param moves buffer to write into, at least MAX_MOVES long past count
+     * @param count number of moves already in the buffer
+     * @return the new number of moves in the buffer
+     */
+    public static int generateAllMoves(ChessBoard board, ChessGame.TeamColor color, int[] moves, int count) {
+        var own=board.colors[color.ordinal()];
+        while (own != 0) {
+            var square=Long.numberOfTrailingZeros(own);
+            own&=own - 1;
+            count=generateMoves(board, square, board.pieceAt(square), moves, count);
         }
+        return count;
+    }
 
-        MoveChecker moveChecker=(int row, int col) -> {
-            var newPos=moveManager.newPosition(row, col);
-
-            if (moveManager.isValidMove(newPos)) {
-                moves.add(moveManager.newMove(newPos));
-            }
-
-            // if there is a piece, then we need to tell it to break
-            return moveManager.getPiece(newPos) != null;
-        };
-
-        for (int row=pos.getRow() + 1; row < 9; ++row) {
-            if (moveChecker.checkMove(row, pos.getColumn())) {
-                break;
-            }
-        }
-        for (int row=pos.getRow() - 1; row > 0; --row) {
-            if (moveChecker.checkMove(row, pos.getColumn())) {
-                break;
-            }
+    /**
+     * Appends every pseudo-legal move of one color, castling and en passant
+     * included
+     *
+     * @param moves buffer to write into, at least MAX_MOVES long past count
+     * @param count number of moves already in the buffer
+     * @return the new number of moves in the buffer
+     */
+    public static int generateAllMoves(ChessBoard board, ChessGame.TeamColor color, int castlingRights,
+                                       int enPassantSquare, int[] moves, int count) {
+        count=generateAllMoves(board, color, moves, count);
+        var king=board.kingSquare(color);
+        if (king != -1) {
+            count=generateSpecialMoves(board, king, castlingRights, enPassantSquare, moves, count);
         }
-        for (int col=pos.getColumn() + 1; col < 9; ++col) {
-            if (moveChecker.checkMove(pos.getRow(), col)) {
-                break;
+        if (enPassantSquare != NO_SQUARE) {
+            // pawns that could capture onto the square are the ones it attacks as an enemy pawn
+            var capturers=PAWN_ATTACKS[color.ordinal() ^ 1][enPassantSquare] & board.pieces[color.ordinal() * 6 + PAWN];
+            while (capturers != 0) {
+                moves[count++]=PackedMove.of(Long.numberOfTrailingZeros(capturers), enPassantSquare);
+                capturers&=capturers - 1;
             }
         }
-        for (int col=pos.getColumn() - 1; col > 0; --col) {
-            if (moveChecker.checkMove(pos.getRow(), col)) {
-                break;
-            }
-        }
-        return moves;
+        return count;
     }
 
-    private static Set<ChessMove> knightMoves(MoveManager moveManager) {
-        var moves=moveManager.moves;
-        var pos=moveManager.getStartPos();
-        var row=pos.getRow();
-        var col=pos.getColumn();
-
-        var positions=new int[][]{
-                {row + 1, col - 2},
-                {row + 2, col + 1},
-                {row + 1, col + 2},
-                {row + 2, col - 1},
-                {row - 1, col - 2},
-                {row - 2, col + 1},
-                {row - 1, col + 2},
-                {row - 2, col - 1},
-        };
-
-        for (int index=0; index < 8; ++index) {
-            var row1=positions[index][0];
-            var col1=positions[index][1];
-            var newPos=moveManager.newPosition(row1, col1);
-            if (moveManager.isValidMove(newPos)) {
-                moves.add(moveManager.newMove(newPos));
-            }
+    /**
+     * Appends the pseudo-legal moves of the piece on a square
+     *
+     * @param moves buffer to write into
+     * @param count number of moves already in the buffer
+     * @return the new number of moves in the buffer
+     */
+    public static int generateMoves(ChessBoard board, int square, int[] moves, int count) {
+        var index=board.pieceAt(square);
+        if (index == ChessBoard.NO_PIECE) {
+            return count;
         }
-        return moves;
+        return generateMoves(board, square, index, moves, count);
     }
 
-    private static Set<ChessMove> bishopMoves(MoveManager moveManager) {
-        var moves=moveManager.moves;
-        var pos=moveManager.getStartPos();
-
-        interface MoveChecker {
-            boolean checkMove(int row, int column);
+    /**
+     * Appends the castling and en passant moves of the piece on a square. They
+     * depend on the game's history rather than just the board, so they are kept
+     * apart from the piece moves. Castling is only generated when the king is not
+     * in check and does not pass over an attacked square; en passant captures are
+     * otherwise pseudo-legal like any other move.
+     *
+     * @param castlingRights  mask of WHITE_KINGSIDE and the other rights bits
+     * @param enPassantSquare square a pawn could capture onto en passant, or NO_SQUARE
+     * @return the new number of moves in the buffer
+     */
+    public static int generateSpecialMoves(ChessBoard board, int square, int castlingRights, int enPassantSquare,
+                                           int[] moves, int count) {
+        int index=board.pieceAt(square);
+        if (index == ChessBoard.NO_PIECE) {
+            return count;
         }
-
-        MoveChecker moveChecker=(int row, int column) -> {
-            var newPos=moveManager.newPosition(row, column);
-            if (moveManager.isValidMove(newPos)) {
-                moves.add(moveManager.newMove(newPos));
-            }
-
-            // if we hit a piece we need to break
-            return column <= 1 || column >= 8 || moveManager.getPiece(newPos) != null;
-        };
-
-        var col=0;
-        for (int row=pos.getRow() + 1; row < 9; ++row) {
-            if (moveChecker.checkMove(row, pos.getColumn() + ++col)) {
-                break;
+        var color=index / 6;
+        if (index % 6 == PAWN) {
+            // only a pawn beside the one that just passed can take it; the square is set for
+            // the side to move, so the other side's pawns never can
+            if (enPassantSquare != NO_SQUARE && (PAWN_ATTACKS[color][square] & (1L << enPassantSquare)) != 0
+                    && board.pieceAt(square / 8 * 8 + enPassantSquare % 8) == (1 - color) * 6 + PAWN) {
+                moves[count++]=PackedMove.of(square, enPassantSquare);
             }
+            return count;
         }
-        col=0;
-        for (int row=pos.getRow() - 1; row > 0; --row) {
-            if (moveChecker.checkMove(row, pos.getColumn() + ++col)) {
-                break;
-            }
+        if (index % 6 != KING) {
+            return count;
         }
-        col=0;
-        for (int row=pos.getRow() + 1; row < 9; ++row) {
-            if (moveChecker.checkMove(row, pos.getColumn() - ++col)) {
-                break;
-            }
+        var white=color == ChessGame.TeamColor.WHITE.ordinal();
+        var home=white ? 4 : 60;
+        var rights=castlingRights & (white ? WHITE_KINGSIDE | WHITE_QUEENSIDE : BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        if (square != home || rights == 0) {
+            return count;
         }
-        col=0;
-        for (int row=pos.getRow() - 1; row > 0; --row) {
-            if (moveChecker.checkMove(row, pos.getColumn() - ++col)) {
-                break;
-            }
+        var enemy=white ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        if (isSquareAttacked(board, home, enemy)) {
+            return count;
         }
-
-        return moves;
-    }
-
-    private static Set<ChessMove> kingMoves(MoveManager moveManager) {
-        var moves=moveManager.moves;
-        var pos=moveManager.getStartPos();
-        for (int row=-1; row < 2; ++row) {
-            for (int col=-1; col < 2; ++col) {
-                var newPos=moveManager.newPosition(pos.getRow() + row, pos.getColumn() + col);
-                if (moveManager.isValidMove(newPos)) {
-                    moves.add(moveManager.newMove(newPos));
-                }
-            }
+        var rook=ChessBoard.pieceIndex(white ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        if ((rights & (WHITE_KINGSIDE | BLACK_KINGSIDE)) != 0
+                && board.pieceAt(home + 3) == rook
+                && (board.occupied & (3L << (home + 1))) == 0
+                && !isSquareAttacked(board, home + 1, enemy)
+                && !isSquareAttacked(board, home + 2, enemy)) {
+            moves[count++]=PackedMove.of(home, home + 2);
         }
-        return moves;
+        if ((rights & (WHITE_QUEENSIDE | BLACK_QUEENSIDE)) != 0
+                && board.pieceAt(home - 4) == rook
+                && (board.occupied & (7L << (home - 3))) == 0
+                && !isSquareAttacked(board, home - 1, enemy)
+                && !isSquareAttacked(board, home - 2, enemy)) {
+            moves[count++]=PackedMove.of(home, home - 2);
+        }
+        return count;
     }
 
-    private static Set<ChessMove> queenMoves(MoveManager moveManager) {
-        var moves=new HashSet<ChessMove>();
-        moves.addAll(rookMoves(moveManager));
-        moves.addAll(bishopMoves(moveManager));
-        return moves;
+    /**
+     * Works out which castling rights a board allows on its own: a side keeps a
+     * right while its king and that rook are still on their starting squares
+     *
+     * @return the castling rights mask
+     */
+    public static int castlingRightsFor(ChessBoard board) {
+        var rights=0;
+        var whiteRook=ChessBoard.pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        var blackRook=ChessBoard.pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        if (board.pieceAt(4) == ChessBoard.pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING)) {
+            rights|=board.pieceAt(7) == whiteRook ? WHITE_KINGSIDE : 0;
+            rights|=board.pieceAt(0) == whiteRook ? WHITE_QUEENSIDE : 0;
+        }
+        if (board.pieceAt(60) == ChessBoard.pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING)) {
+            rights|=board.pieceAt(63) == blackRook ? BLACK_KINGSIDE : 0;
+            rights|=board.pieceAt(56) == blackRook ? BLACK_QUEENSIDE : 0;
+        }
+        return rights;
     }
 
-    // white advances down, black advances up
-    private static Set<ChessMove> pawnMoves(MoveManager moveManager) {
-        int toMove;
-        int notMovedRow;
-        var pos=moveManager.getStartPos();
-        var piece=moveManager.getPiece(pos);
-        var moves=moveManager.moves;
-
-        if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) {
-            toMove=1;
-            notMovedRow=2;
-        } else {
-            toMove=-1;
-            notMovedRow=7;
+    static int generateMoves(ChessBoard board, int square, int index, int[] moves, int count) {
+        var color=index / 6;
+        var type=TYPES[index % 6];
+        if (type == ChessPiece.PieceType.PAWN) {
+            return pawnMoves(board, square, color, moves, count);
         }
+        var targets=switch (type) {
+            case KING -> KING_ATTACKS[square];
+            case QUEEN -> rookAttacks(square, board.occupied) | bishopAttacks(square, board.occupied);
+            case BISHOP -> bishopAttacks(square, board.occupied);
+            case KNIGHT -> KNIGHT_ATTACKS[square];
+            case ROOK -> rookAttacks(square, board.occupied);
+            case PAWN -> 0L;
+        };
+        return addMoves(square, targets & ~board.colors[color], moves, count);
+    }
 
-        var forward=moveManager.newPosition(pos.getRow() + toMove, pos.getColumn());
-        var canMoveForward=moveManager.isValidMove(forward, TakeStatus.CANT_TAKE);
-
-        // if it can move directly forward
-        if (canMoveForward) {
-            // if directly forward would move to promotion row
-            if (forward.getRow() == 1 || forward.getRow() == 8) {
-                for (int i=0; i < 4; ++i) {
-                    moves.add(moveManager.newMove(forward, PROMOTIONS[i]));
-                }
-            }
-            // if move is normal move
-            else {
-                moves.add(moveManager.newMove(forward));
-            }
-
-            // if it can do double move at beginning
-            if (pos.getRow() == notMovedRow) {
-                var doubleForward=moveManager.newPosition(pos.getRow() + toMove * 2, pos.getColumn());
-                if (moveManager.isValidMove(doubleForward, TakeStatus.CANT_TAKE)) {
-                    moves.add(moveManager.newMove(doubleForward));
-                }
+    // white advances up, black advances down
+    private static int pawnMoves(ChessBoard board, int square, int color, int[] moves, int count) {
+        var white=color == ChessGame.TeamColor.WHITE.ordinal();
+        var forward=white ? square + 8 : square - 8;
+        var startRow=white ? 1 : 6;
+
+        var targets=PAWN_ATTACKS[color][square] & board.colors[color ^ 1];
+        if (forward >= 0 && forward < 64 && (board.occupied & (1L << forward)) == 0) {
+            targets|=1L << forward;
+            var doubleForward=white ? forward + 8 : forward - 8;
+            if (square / 8 == startRow && (board.occupied & (1L << doubleForward)) == 0) {
+                targets|=1L << doubleForward;
             }
         }
 
-        // for taking pieces
-        var left=moveManager.newPosition(pos.getRow() + toMove, pos.getColumn() - 1);
-        var right=moveManager.newPosition(pos.getRow() + toMove, pos.getColumn() + 1);
-        if (moveManager.isValidMove(left, TakeStatus.MUST_TAKE)) {
-            if (left.getRow() == 1 || left.getRow() == 8) {
-                for (int i=0; i < 4; ++i) {
-                    moves.add(moveManager.newMove(left, PROMOTIONS[i]));
+        var promotionRow=white ? 7 : 0;
+        while (targets != 0) {
+            var to=Long.numberOfTrailingZeros(targets);
+            targets&=targets - 1;
+            if (to / 8 == promotionRow) {
+                for (var promotion : PROMOTIONS) {
+                    moves[count++]=PackedMove.of(square, to, promotion);
                 }
-            } else {
-                moves.add(moveManager.newMove(left));
             }
-        }
-        if (moveManager.isValidMove(right, TakeStatus.MUST_TAKE)) {
-            if (right.getRow() == 1 || right.getRow() == 8) {
-                for (int i=0; i < 4; ++i) {
-                    moves.add(moveManager.newMove(right, PROMOTIONS[i]));
-                }
-            } else {
-                moves.add(moveManager.newMove(right));
+            else {
+                moves[count++]=PackedMove.of(square, to);
             }
         }
-
-        return moves;
-    }
-
-    private interface MoveFactory {
-        ChessMove newMove(ChessPosition pos);
+        return count;
     }
 
-    private interface MoveValidator {
-        boolean isValidMove(ChessPosition pos);
-
-        boolean isValidMove(ChessPosition pos, TakeStatus status);
-    }
-
-    private interface MoveFunction {
-        Set<ChessMove> getMoves(MoveManager moveManager);
+    private static int addMoves(int from, long targets, int[] moves, int count) {
+        while (targets != 0) {
+            var to=Long.numberOfTrailingZeros(targets);
+            targets&=targets - 1;
+            moves[count++]=PackedMove.of(from, to);
+        }
+        return count;
     }
 
-    private static class MoveManager {
-        public final Set<ChessMove> moves=new HashSet<>();
-        private final ChessBoard board;
-        private final ChessPiece piece;
-        private final ChessPosition startPos;
-
-        MoveManager(ChessBoard board, ChessPiece piece, ChessPosition startPos) {
-            this.board=board;
-            this.piece=piece;
-            this.startPos=startPos;
+    /**
+     * Determines whether any piece of the given color attacks a square, by probing
+     * outward from the square for knights, pawns, the king and sliding pieces
+     *
+     * @param square   square to test, 0 (a1) to 63 (h8)
+     * @param attacker color of the attacking side
+     * @return True if a piece of that color could capture on the square
+     */
+    public static boolean isSquareAttacked(ChessBoard board, int square, ChessGame.TeamColor attacker) {
+        var pieces=board.pieces;
+        var base=attacker.ordinal() * 6;
+        if ((KNIGHT_ATTACKS[square] & pieces[base + KNIGHT]) != 0) {
+            return true;
         }
-
-        public ChessMove newMove(ChessPosition pos) {
-            return new ChessMove(startPos, pos);
+        // a pawn attacks this square from wherever a defending pawn here would attack
+        if ((PAWN_ATTACKS[attacker.ordinal() ^ 1][square] & pieces[base + PAWN]) != 0) {
+            return true;
         }
-
-        public ChessMove newMove(ChessPosition pos, ChessPiece.PieceType promotionType) {
-            return new ChessMove(startPos, pos, promotionType);
+        if ((KING_ATTACKS[square] & pieces[base + KING]) != 0) {
+            return true;
         }
-
-        public boolean isValidMove(ChessPosition newPos, TakeStatus status) {
-            if (newPos.getColumn() > 8 || newPos.getColumn() < 1 || newPos.getRow() > 8 || newPos.getRow() < 1) {
-                return false;
-            }
-            var toMove=board.getPiece(newPos);
-            if (status == TakeStatus.MUST_TAKE && toMove == null) {
-                return false;
-            }
-            if (status == TakeStatus.CANT_TAKE && toMove != null) {
-                return false;
-            }
-            return toMove == null || toMove.getTeamColor() != piece.getTeamColor();
+        var queens=pieces[base + QUEEN];
+        if ((rookAttacks(square, board.occupied) & (pieces[base + ROOK] | queens)) != 0) {
+            return true;
         }
+        return (bishopAttacks(square, board.occupied) & (pieces[base + BISHOP] | queens)) != 0;
+    }
 
-        public boolean isValidMove(ChessPosition newPos) {
-            return isValidMove(newPos, TakeStatus.CAN_TAKE);
-        }
+    static long rookAttacks(int square, long occupied) {
+        return positiveRay(NORTH, square, occupied) | positiveRay(EAST, square, occupied)
+                | negativeRay(SOUTH, square, occupied) | negativeRay(WEST, square, occupied);
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        return positiveRay(NORTH_EAST, square, occupied) | positiveRay(NORTH_WEST, square, occupied)
+                | negativeRay(SOUTH_EAST, square, occupied) | negativeRay(SOUTH_WEST, square, occupied);
+    }
 
-        public ChessPiece getPiece(ChessPosition pos) {
-            return board.getPiece(pos);
+    // rays toward h8: the nearest blocker is the lowest set bit
+    private static long positiveRay(int dir, int square, long occupied) {
+        var ray=RAYS[dir][square];
+        var blockers=ray & occupied;
+        if (blockers == 0) {
+            return ray;
         }
+        return ray ^ RAYS[dir][Long.numberOfTrailingZeros(blockers)];
+    }
 
-        public ChessPosition newPosition(int row, int col) {
-            return new ChessPosition(row, col);
+    // rays toward a1: the nearest blocker is the highest set bit
+    private static long negativeRay(int dir, int square, long occupied) {
+        var ray=RAYS[dir][square];
+        var blockers=ray & occupied;
+        if (blockers == 0) {
+            return ray;
         }
+        return ray ^ RAYS[dir][63 - Long.numberOfLeadingZeros(blockers)];
+    }
 
-        public ChessPosition getStartPos() {
-            return startPos;
+    private static long bit(int row, int col) {
+        if (row < 0 || row > 7 || col < 0 || col > 7) {
+            return 0L;
         }
+        return 1L << (row * 8 + col);
     }
 }
@@ -0,0 +1,78 @@
+package chess;
+
+/**
+ * Encodes a chess move into a single int so move lists can live in plain int[]
+ * buffers instead of collections of ChessMove objects.
+ * <p>
+ * Layout: bits 0-5 start square, bits 6-11 end square, bits 12-14 promotion
+ * piece (0 for none, otherwise PieceType ordinal + 1). Squares use the
+ * ChessBoard index, 0 (a1) to 63 (h8).
+ */
+public final class PackedMove {
+    public static final int NONE=0;
+
+    private static final ChessPiece.PieceType[] TYPES=ChessPiece.PieceType.values();
+    // indexed by PieceType ordinal
+    private static final String TYPE_LETTERS="kqbnrp";
+
+    private PackedMove() {
+    }
+
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int of(int from, int to, ChessPiece.PieceType promotion) {
+        return from | (to << 6) | (promotion == null ? 0 : (promotion.ordinal() + 1) << 12);
+    }
+
+    public static int from(int move) {
+        return move & 0x3f;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3f;
+    }
+
+    /**
+     * @return the promotion piece type, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        var promotion=(move >>> 12) & 0x7;
+        return promotion == 0 ? null : TYPES[promotion - 1];
+    }
+
+    public static int fromChessMove(ChessMove move) {
+        return of(
+                ChessBoard.squareOf(move.getStartPosition()),
+                ChessBoard.squareOf(move.getEndPosition()),
+                move.getPromotionPiece()
+        );
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(position(from(move)), position(to(move)), promotion(move));
+    }
+
+    /**
+     * @return the move in coordinate notation, e.g. "e2e4" or "e7e8q"
+     */
+    public static String toAlgebraic(int move) {
+        var sb=new StringBuilder(5);
+        appendSquare(sb, from(move));
+        appendSquare(sb, to(move));
+        var promotion=promotion(move);
+        if (promotion != null) {
+            sb.append(TYPE_LETTERS.charAt(promotion.ordinal()));
+        }
+        return sb.toString();
+    }
+
+    private static void appendSquare(StringBuilder sb, int square) {
+        sb.append((char) ('a' + square % 8)).append((char) ('1' + square / 8));
+    }
+
+    static ChessPosition position(int square) {
+        return ChessPosition.of(square);
+    }
+}
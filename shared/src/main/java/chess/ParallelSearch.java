@@ -0,0 +1,95 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs one search on several threads with the "Lazy SMP" scheme.
+ * <p>
+ * Every thread searches its own copy of the game, and all of them share one
+ * TranspositionTable. The threads don't divide the work explicitly: helpers
+ * search the same position, half of them one iteration ahead, and whatever any
+ * of them stores in the table lets the others cut off sooner. The calling thread
+ * is the main search; its result is returned, and the helpers are stopped once
+ * it finishes.
+ * <p>
+ * Instances are thread safe, but concurrent searches compete for the same helper
+ * threads and table, so servers should size one instance for their spare cores.
+ */
+public class ParallelSearch implements AutoCloseable {
+    private final int threads;
+    private final TranspositionTable table;
+    private final ExecutorService helpers;
+
+    /**
+     * @param threads threads per search, the calling thread included
+     * @param table   table shared by every thread
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        this.threads=Math.max(1, threads);
+        this.table=table;
+        this.helpers=this.threads == 1 ? null : Executors.newFixedThreadPool(this.threads - 1, runnable -> {
+            var thread=new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param game   position to search; it is left unchanged
+     * @param limits work limits for the main thread; helpers stop when it does
+     * @return the main thread's result, with nodes counted over every thread
+     */
+    public Search.Result search(ChessGame game, Search.Limits limits) {
+        var stop=new AtomicBoolean();
+        table.newSearch();
+        var futures=new ArrayList<Future<Search.Result>>(threads - 1);
+        for (int helper=1; helper < threads; ++helper) {
+            var helperSearch=new Search(game.copy(), table, stop);
+            var firstDepth=1 + helper % 2;
+            futures.add(helpers.submit(() -> helperSearch.search(limits, firstDepth)));
+        }
+
+        Search.Result result;
+        try {
+            result=new Search(game.copy(), table, stop).search(limits, 1);
+        }
+        finally {
+            stop.set(true);
+        }
+
+        var nodes=result.nodes();
+        for (var future : futures) {
+            try {
+                nodes+=future.get().nodes();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            catch (ExecutionException ex) {
+                throw new IllegalStateException("Search helper failed", ex.getCause());
+            }
+        }
+        return new Search.Result(result.move(), result.score(), result.depth(), nodes, result.elapsedNanos());
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+}
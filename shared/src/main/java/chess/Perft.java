@@ -0,0 +1,111 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft").
+ * <p>
+ * Comparing the counts against published values for well known positions is
+ * the standard way to check a move generator, and nodes per second over the
+ * same walk is a stable measure of move generation speed.
+ */
+public class Perft {
+    /**
+     * A published perft position
+     *
+     * @param name  short name of the position
+     * @param fen   the position in Forsyth-Edwards Notation
+     * @param nodes expected leaf counts, nodes[0] being depth 1
+     */
+    public record Reference(String name, String fen, long... nodes) {
+    }
+
+    /**
+     * Reference positions from the Chess Programming Wiki perft results
+     */
+    public static final List<Reference> REFERENCE_POSITIONS=List.of(
+            new Reference("initial",
+                    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                    20, 400, 8902, 197281),
+            new Reference("endgame",
+                    "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14, 191, 2812, 43238, 674624),
+            new Reference("middlegame",
+                    "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2079, 89890, 3894594),
+            new Reference("promotions",
+                    "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1",
+                    24, 496, 9483, 182838),
+            new Reference("kiwipete",
+                    "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2039, 97862, 4085603),
+            new Reference("castling",
+                    "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44, 1486, 62379, 2103487)
+    );
+
+    private final ChessGame game;
+    // one move buffer per ply so recursion never overwrites a list being walked
+    private final int[][] buffers;
+
+    /**
+     * @param game     position to walk; it is restored when each count finishes
+     * @param maxDepth deepest count this instance will be asked for
+     */
+    public Perft(ChessGame game, int maxDepth) {
+        this.game=game;
+        this.buffers=new int[Math.max(maxDepth, 1)][MoveCalculator.MAX_MOVES];
+    }
+
+    public static long perft(ChessGame game, int depth) {
+        return new Perft(game, depth).count(depth);
+    }
+
+    /**
+     * @return the number of leaf nodes of the legal move tree at the given depth
+     */
+    public long count(int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        return count(depth, 0);
+    }
+
+    /**
+     * Splits the count by root move, which narrows down a wrong count to the
+     * line that causes it
+     *
+     * @return leaf counts keyed by root move in coordinate notation
+     */
+    public Map<String, Long> divide(int depth) {
+        var results=new LinkedHashMap<String, Long>();
+        var moves=buffers[0];
+        var mover=game.getTeamTurn();
+        var count=game.generateAllMoves(moves, 0);
+        for (int i=0; i < count; ++i) {
+            game.makeMove(moves[i]);
+            if (!game.isInCheck(mover)) {
+                results.put(PackedMove.toAlgebraic(moves[i]), depth <= 1 ? 1 : count(depth - 1, 1));
+            }
+            game.unmakeMove();
+        }
+        return results;
+    }
+
+    private long count(int depth, int ply) {
+        var moves=buffers[ply];
+        var mover=game.getTeamTurn();
+        var count=game.generateAllMoves(moves, 0);
+        long nodes=0;
+        for (int i=0; i < count; ++i) {
+            game.makeMove(moves[i]);
+            if (!game.isInCheck(mover)) {
+                nodes+=depth == 1 ? 1 : count(depth - 1, ply + 1);
+            }
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,431 @@
+package chess;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chooses a move for the team whose turn it is, for computer opponents.
+ * <p>
+ * The search is an iterative deepening negamax with alpha-beta pruning, followed
+ * at the horizon by a quiescence search over captures and promotions so the
+ * evaluation is never taken in the middle of an exchange. Moves come straight
+ * from ChessGame's packed move generation and are played with makeMove and
+ * unmakeMove, so the game is left as it was when the search returns. Results are
+ * kept in a TranspositionTable, so positions reached again through another move
+ * order are not searched twice, and later iterations try the stored best move
+ * first.
+ * <p>
+ * An instance owns its move buffers and is not thread safe; use one per thread.
+ */
+public class Search {
+    /**
+     * Score of delivering mate right now; mate in n plies scores MATE - n
+     */
+    public static final int MATE=30000;
+    public static final int DRAW=0;
+    /**
+     * Deepest ply the search will reach, quiescence included
+     */
+    public static final int MAX_PLY=64;
+
+    private static final int INFINITY=MATE + 1;
+    private static final int HASH_MOVE_SCORE=1_000_000;
+    private static final int CAPTURE_SCORE=100_000;
+    private static final int KILLER_SCORE=90_000;
+    // table size for searches that don't share one
+    private static final int DEFAULT_TABLE_MEGABYTES=1;
+    // nodes between checks of the stop flag
+    private static final int STOP_CHECK_INTERVAL=1024;
+
+    /**
+     * How much work one search may do. Whichever limit is reached first ends the
+     * search with the last finished iteration's move.
+     *
+     * @param depth  deepest iteration to search, in plies
+     * @param nodes  most positions to visit, or 0 for no limit
+     * @param millis most wall time to spend, or 0 for no limit
+     */
+    public record Limits(int depth, long nodes, long millis) {
+        public Limits {
+            depth=Math.max(1, Math.min(depth, MAX_PLY / 2));
+            nodes=nodes <= 0 ? Long.MAX_VALUE : nodes;
+            millis=Math.max(0, millis);
+        }
+
+        public Limits(int depth, long nodes) {
+            this(depth, nodes, 0);
+        }
+
+        public static Limits depth(int depth) {
+            return new Limits(depth, Long.MAX_VALUE);
+        }
+
+        public static Limits nodes(long nodes) {
+            return new Limits(MAX_PLY / 2, nodes);
+        }
+
+        public static Limits time(long millis) {
+            return new Limits(MAX_PLY / 2, Long.MAX_VALUE, millis);
+        }
+    }
+
+    /**
+     * @param move         best move found, or null if the team to move has none
+     * @param score        centipawns from the mover's point of view, or a mate score
+     * @param depth        deepest iteration that finished
+     * @param nodes        positions visited
+     * @param elapsedNanos wall time spent searching
+     */
+    public record Result(ChessMove move, int score, int depth, long nodes, long elapsedNanos) {
+        public long nodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+        }
+    }
+
+    private final ChessGame game;
+    private final TranspositionTable table;
+    // set by another thread to end the search early, as if the node budget ran out
+    private final AtomicBoolean stop;
+    // one buffer per ply so recursion never overwrites a list being walked
+    private final int[][] moves=new int[MAX_PLY][MoveCalculator.MAX_MOVES];
+    private final int[][] scores=new int[MAX_PLY][MoveCalculator.MAX_MOVES];
+    // two quiet moves per ply that recently caused a beta cutoff
+    private final int[][] killers=new int[MAX_PLY][2];
+
+    private long maxNodes;
+    // System.nanoTime() past which the search stops, or Long.MAX_VALUE
+    private long deadline;
+    private boolean hasDeadline;
+    private long nodes;
+    private boolean aborted;
+    private int rootMove;
+
+    /**
+     * @param game position to search; it is restored when each search finishes
+     */
+    public Search(ChessGame game) {
+        this(game, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * @param game  position to search; it is restored when each search finishes
+     * @param table table to cache results in, which may be shared between
+     *              searches to bound their total memory
+     */
+    public Search(ChessGame game, TranspositionTable table) {
+        this(game, table, new AtomicBoolean());
+    }
+
+    Search(ChessGame game, TranspositionTable table, AtomicBoolean stop) {
+        this.game=game;
+        this.table=table;
+        this.stop=stop;
+    }
+
+    /**
+     * @return the table this search caches results in
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public Result search(Limits limits) {
+        table.newSearch();
+        return search(limits, 1);
+    }
+
+    /**
+     * Searches without starting a new table age, for threads that share a table
+     * with a search already in progress
+     *
+     * @param firstDepth depth of the first iteration; parallel helpers start some
+     *                   threads deeper so they work ahead of the main thread
+     */
+    Result search(Limits limits, int firstDepth) {
+        var start=System.nanoTime();
+        maxNodes=limits.nodes();
+        hasDeadline=limits.millis() > 0;
+        deadline=hasDeadline ? start + limits.millis() * 1_000_000 : Long.MAX_VALUE;
+        nodes=0;
+        aborted=false;
+        for (var killer : killers) {
+            killer[0]=PackedMove.NONE;
+            killer[1]=PackedMove.NONE;
+        }
+
+        // so even a search stopped before its first root move is scored still returns a legal move
+        var bestMove=firstLegalMove();
+        var bestScore=0;
+        var completed=0;
+        for (int depth=Math.min(firstDepth, limits.depth()); depth <= limits.depth(); ++depth) {
+            rootMove=PackedMove.NONE;
+            var score=negamax(depth, 0, -INFINITY, INFINITY, bestMove);
+            if (aborted) {
+                // a cut short first iteration still beats the unscored fallback
+                if (completed == 0 && rootMove != PackedMove.NONE) {
+                    bestMove=rootMove;
+                }
+                break;
+            }
+            bestMove=rootMove;
+            bestScore=score;
+            completed=depth;
+            if (rootMove == PackedMove.NONE || isMateScore(score)) {
+                break;
+            }
+        }
+
+        var move=bestMove == PackedMove.NONE ? null : PackedMove.toChessMove(bestMove);
+        return new Result(move, bestScore, completed, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * @return True if the score means one side can force mate
+     */
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) >= MATE - MAX_PLY;
+    }
+
+    private int firstLegalMove() {
+        var mover=game.currentTeamTurn;
+        var buffer=moves[0];
+        var count=game.generateAllMoves(buffer, 0);
+        for (int i=0; i < count; ++i) {
+            game.makeMove(buffer[i]);
+            var legal=!game.isInCheck(mover);
+            game.unmakeMove();
+            if (legal) {
+                return buffer[i];
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta, int hashMove) {
+        if (ply > 0 && (game.getHalfmoveClock() >= 100 || game.priorOccurrences(1) > 0)) {
+            return DRAW;
+        }
+        var mover=game.currentTeamTurn;
+        var inCheck=game.isInCheck(mover);
+        // look one ply further at checks so the horizon never lands on one
+        if (inCheck && ply < MAX_PLY / 2) {
+            ++depth;
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiesce(ply, alpha, beta);
+        }
+        if (isOutOfBudget()) {
+            return 0;
+        }
+
+        var key=game.positionKey();
+        var entry=table.probe(key);
+        if (entry != TranspositionTable.NO_ENTRY) {
+            if (hashMove == PackedMove.NONE) {
+                hashMove=TranspositionTable.move(entry);
+            }
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                var score=fromTable(TranspositionTable.score(entry), ply);
+                var bound=TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        var buffer=moves[ply];
+        var count=game.generateAllMoves(buffer, 0);
+        scoreMoves(ply, count, hashMove);
+
+        var originalAlpha=alpha;
+        var legal=0;
+        var best=-INFINITY;
+        var bestMove=PackedMove.NONE;
+        for (int i=0; i < count; ++i) {
+            var move=nextMove(ply, i, count);
+            game.makeMove(move);
+            if (game.isInCheck(mover)) {
+                game.unmakeMove();
+                continue;
+            }
+            ++legal;
+            var score=-negamax(depth - 1, ply + 1, -beta, -alpha, PackedMove.NONE);
+            game.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > best) {
+                best=score;
+                bestMove=move;
+                if (ply == 0) {
+                    rootMove=move;
+                }
+                if (score > alpha) {
+                    alpha=score;
+                    if (alpha >= beta) {
+                        if (!isCapture(move)) {
+                            storeKiller(ply, move);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (legal == 0) {
+            return inCheck ? -MATE + ply : DRAW;
+        }
+
+        int bound;
+        if (best >= beta) {
+            bound=TranspositionTable.BOUND_LOWER;
+        }
+        else if (best > originalAlpha) {
+            bound=TranspositionTable.BOUND_EXACT;
+        }
+        else {
+            bound=TranspositionTable.BOUND_UPPER;
+            // every move failed low, so none of them is known to be best
+            bestMove=PackedMove.NONE;
+        }
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private boolean isOutOfBudget() {
+        if (++nodes >= maxNodes) {
+            aborted=true;
+        }
+        else if (nodes % STOP_CHECK_INTERVAL == 0) {
+            aborted=stop.get() || (hasDeadline && System.nanoTime() - deadline >= 0);
+        }
+        return aborted;
+    }
+
+    // the table holds mate scores as distance from the stored position rather than
+    // from the root, since the same position can be reached at any ply
+    private static int toTable(int score, int ply) {
+        if (isMateScore(score)) {
+            return score > 0 ? score + ply : score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (isMateScore(score)) {
+            return score > 0 ? score - ply : score + ply;
+        }
+        return score;
+    }
+
+    private int quiesce(int ply, int alpha, int beta) {
+        if (isOutOfBudget()) {
+            return 0;
+        }
+        var standPat=Evaluation.evaluate(game);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha=standPat;
+        }
+
+        var buffer=moves[ply];
+        var generated=game.generateAllMoves(buffer, 0);
+        var count=0;
+        for (int i=0; i < generated; ++i) {
+            if (isCapture(buffer[i]) || PackedMove.promotion(buffer[i]) != null) {
+                buffer[count++]=buffer[i];
+            }
+        }
+        scoreMoves(ply, count, PackedMove.NONE);
+
+        var mover=game.currentTeamTurn;
+        for (int i=0; i < count; ++i) {
+            var move=nextMove(ply, i, count);
+            game.makeMove(move);
+            if (game.isInCheck(mover)) {
+                game.unmakeMove();
+                continue;
+            }
+            var score=-quiesce(ply + 1, -beta, -alpha);
+            game.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha=score;
+            }
+        }
+        return alpha;
+    }
+
+    // the hash move first, then captures of the most valuable victim by the least
+    // valuable attacker, then killer moves, then everything else
+    private void scoreMoves(int ply, int count, int hashMove) {
+        var buffer=moves[ply];
+        var moveScores=scores[ply];
+        var board=game.board;
+        for (int i=0; i < count; ++i) {
+            var move=buffer[i];
+            var score=0;
+            if (move == hashMove) {
+                score=HASH_MOVE_SCORE;
+            }
+            else if (isCapture(move)) {
+                var victim=board.pieceAt(PackedMove.to(move));
+                var victimValue=victim == ChessBoard.NO_PIECE ? Evaluation.PIECE_VALUES[5] : Evaluation.pieceValue(victim);
+                score=CAPTURE_SCORE + victimValue * 10 - Evaluation.pieceValue(board.pieceAt(PackedMove.from(move)));
+            }
+            else if (move == killers[ply][0] || move == killers[ply][1]) {
+                score=KILLER_SCORE;
+            }
+            var promotion=PackedMove.promotion(move);
+            if (promotion != null) {
+                score+=Evaluation.PIECE_VALUES[promotion.ordinal()];
+            }
+            moveScores[i]=score;
+        }
+    }
+
+    // selection sort one step at a time: a cutoff usually comes early, so most of
+    // the list is never sorted
+    private int nextMove(int ply, int index, int count) {
+        var buffer=moves[ply];
+        var moveScores=scores[ply];
+        var best=index;
+        for (int i=index + 1; i < count; ++i) {
+            if (moveScores[i] > moveScores[best]) {
+                best=i;
+            }
+        }
+        var move=buffer[best];
+        buffer[best]=buffer[index];
+        buffer[index]=move;
+        var score=moveScores[best];
+        moveScores[best]=moveScores[index];
+        moveScores[index]=score;
+        return move;
+    }
+
+    private boolean isCapture(int move) {
+        var to=PackedMove.to(move);
+        if (game.board.pieceAt(to) != ChessBoard.NO_PIECE) {
+            return true;
+        }
+        return to == game.enPassantSquare
+                && game.board.pieceAt(PackedMove.from(move)) % 6 == ChessPiece.PieceType.PAWN.ordinal();
+    }
+
+    private void storeKiller(int ply, int move) {
+        if (killers[ply][0] != move) {
+            killers[ply][1]=killers[ply][0];
+            killers[ply][0]=move;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size cache of search results keyed by ChessGame.positionKey.
+ * <p>
+ * Entries live in two parallel long arrays, so the table takes exactly the memory
+ * it was sized for and never allocates after construction. Each entry packs the
+ * best move (bits 0-15), score (bits 16-31), depth (bits 32-39), bound (bits
+ * 40-41) and the age of the search that stored it (bits 42-49) into one long.
+ * The key slot holds the position key XOR that long, so an entry torn by two
+ * threads writing at once fails the key check instead of returning another
+ * position's data, and the table can be shared without locks.
+ * <p>
+ * A key maps to a bucket of four slots. Storing prefers the slot already holding
+ * the position, then an empty one, then the one whose result is least worth
+ * keeping: shallow entries and entries from older searches go first.
+ */
+public class TranspositionTable {
+    public static final int BOUND_LOWER=1;
+    public static final int BOUND_UPPER=2;
+    public static final int BOUND_EXACT=3;
+    /**
+     * Probe result when the position is not in the table
+     */
+    public static final long NO_ENTRY=0;
+
+    private static final int BUCKET_SIZE=4;
+    private static final int ENTRY_BYTES=16;
+    // depth an entry is worth giving up per search it has gone unused
+    private static final int AGE_PENALTY=8;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private int age;
+
+    private final LongAdder probes=new LongAdder();
+    private final LongAdder hits=new LongAdder();
+
+    /**
+     * @param megabytes memory budget; the table takes the largest power of two
+     *                  number of entries that fits, and at least one bucket
+     */
+    public TranspositionTable(int megabytes) {
+        var entries=Math.max(BUCKET_SIZE, Long.highestOneBit(Math.max(1L, (long) megabytes << 20) / ENTRY_BYTES));
+        entries=Math.min(entries, 1 << 30);
+        keys=new long[(int) entries];
+        data=new long[(int) entries];
+        mask=(int) entries - 1;
+    }
+
+    /**
+     * Starts a new search, so entries from earlier ones become cheaper to replace
+     */
+    public void newSearch() {
+        age=(age + 1) & 0xff;
+    }
+
+    /**
+     * @return the packed entry for the position, or NO_ENTRY
+     */
+    public long probe(long key) {
+        probes.increment();
+        var bucket=bucket(key);
+        for (int slot=bucket; slot < bucket + BUCKET_SIZE; ++slot) {
+            var entry=data[slot];
+            if (entry != NO_ENTRY && (keys[slot] ^ entry) == key) {
+                hits.increment();
+                return entry;
+            }
+        }
+        return NO_ENTRY;
+    }
+
+    /**
+     * @param move  best move found, or PackedMove.NONE to keep the stored one
+     * @param score score to store, with mate scores already made relative to
+     *              this position
+     * @param bound BOUND_LOWER, BOUND_UPPER or BOUND_EXACT
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        var bucket=bucket(key);
+        var target=bucket;
+        var worst=Integer.MAX_VALUE;
+        for (int slot=bucket; slot < bucket + BUCKET_SIZE; ++slot) {
+            var entry=data[slot];
+            if (entry == NO_ENTRY) {
+                target=slot;
+                break;
+            }
+            if ((keys[slot] ^ entry) == key) {
+                // a shallower result for the same position only replaces an exact one
+                // if it is exact too, and keeps the old move if it has none of its own
+                if (depth < depth(entry) && bound != BOUND_EXACT && bound(entry) == BOUND_EXACT) {
+                    return;
+                }
+                if (move == PackedMove.NONE) {
+                    move=move(entry);
+                }
+                target=slot;
+                break;
+            }
+            var worth=depth(entry) - AGE_PENALTY * ((age - age(entry)) & 0xff);
+            if (worth < worst) {
+                worst=worth;
+                target=slot;
+            }
+        }
+
+        var entry=(move & 0xffffL)
+                | ((score & 0xffffL) << 16)
+                | ((long) Math.min(Math.max(depth, 0), 0xff) << 32)
+                | ((long) bound << 40)
+                | ((long) age << 42);
+        data[target]=entry;
+        keys[target]=key ^ entry;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        probes.reset();
+        hits.reset();
+    }
+
+    /**
+     * @return the number of entries the table holds
+     */
+    public int capacity() {
+        return data.length;
+    }
+
+    public long probes() {
+        return probes.sum();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return hits over probes since the table was created or cleared
+     */
+    public double hitRate() {
+        var total=probes.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xffff);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> 32) & 0xff);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> 40) & 0x3);
+    }
+
+    private static int age(long entry) {
+        return (int) ((entry >>> 42) & 0xff);
+    }
+
+    private int bucket(long key) {
+        // the low bits pick the bucket; mixing in the high bits spreads keys that
+        // differ only there
+        return (int) (key ^ (key >>> 32)) & mask & -BUCKET_SIZE;
+    }
+}
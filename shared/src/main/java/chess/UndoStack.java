@@ -0,0 +1,93 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Stack of everything needed to take back a move, packed one move per long.
+ * <p>
+ * Layout: bits 0-15 the packed move (which carries any promotion), bits 16-19
+ * the captured piece index + 1 (0 for no capture), bit 20 the team whose turn
+ * it was before the move, bits 21-30 the halfmove clock before the move, bits
+ * 31-34 the castling rights before the move, bits 35-41 the en passant square
+ * before the move + 1 (0 for none).
+ * <p>
+ * The position key before each move is kept alongside, for repetition checks.
+ */
+final class UndoStack {
+    static final int MAX_HALFMOVE_CLOCK=1023;
+
+    private long[] records=new long[64];
+    private long[] keys=new long[64];
+    private int size;
+
+    void push(int move, int captured, ChessGame.TeamColor priorTurn, int priorHalfmoveClock,
+              int priorCastlingRights, int priorEnPassantSquare, long priorKey) {
+        if (size == records.length) {
+            records=Arrays.copyOf(records, size * 2);
+            keys=Arrays.copyOf(keys, size * 2);
+        }
+        keys[size]=priorKey;
+        records[size++]=(move & 0xffffL)
+                | ((long) (captured + 1) << 16)
+                | ((long) priorTurn.ordinal() << 20)
+                | ((long) Math.min(priorHalfmoveClock, MAX_HALFMOVE_CLOCK) << 21)
+                | ((long) priorCastlingRights << 31)
+                | ((long) (priorEnPassantSquare + 1) << 35);
+    }
+
+    long pop() {
+        return records[--size];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size=0;
+    }
+
+    void copyFrom(UndoStack other) {
+        records=Arrays.copyOf(other.records, other.records.length);
+        keys=Arrays.copyOf(other.keys, other.keys.length);
+        size=other.size;
+    }
+
+    /**
+     * @param pliesAgo 1 for the position just before the most recent move
+     * @return the position key from that many moves back
+     */
+    long keyBefore(int pliesAgo) {
+        return keys[size - pliesAgo];
+    }
+
+    static int move(long record) {
+        return (int) (record & 0xffff);
+    }
+
+    /**
+     * @return the captured piece index, or ChessBoard.NO_PIECE
+     */
+    static int captured(long record) {
+        return (int) ((record >>> 16) & 0xf) - 1;
+    }
+
+    static ChessGame.TeamColor priorTurn(long record) {
+        return ((record >>> 20) & 1) == 0 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    }
+
+    static int priorHalfmoveClock(long record) {
+        return (int) ((record >>> 21) & MAX_HALFMOVE_CLOCK);
+    }
+
+    static int priorCastlingRights(long record) {
+        return (int) ((record >>> 31) & 0xf);
+    }
+
+    /**
+     * @return the en passant square, or MoveCalculator.NO_SQUARE
+     */
+    static int priorEnPassantSquare(long record) {
+        return (int) ((record >>> 35) & 0x7f) - 1;
+    }
+}
@@ -0,0 +1,59 @@
+package chess;
+
+/**
+ * Random keys for Zobrist hashing of positions.
+ * <p>
+ * A position's key is the XOR of the key of every piece on its square, the
+ * side-to-move key when black is to move, the key of the castling rights and
+ * the key of the en passant file, so it can be updated incrementally as pieces
+ * are placed and removed. Having no castling rights or en passant square adds
+ * nothing to the key. The keys come from a fixed seed so the same
+ * position hashes identically in every JVM, which lets keys be persisted.
+ */
+final class Zobrist {
+    // fixed seed: changing it changes every stored key
+    private static long state=0x6a09e667f3bcc908L;
+
+    // indexed by ChessBoard piece index, then square
+    static final long[][] PIECE_SQUARE=new long[12][64];
+    static final long BLACK_TO_MOVE;
+    // indexed by castling rights mask
+    static final long[] CASTLING=new long[16];
+    // indexed by file of the en passant square
+    static final long[] EN_PASSANT_FILE=new long[8];
+
+    static {
+        for (int index=0; index < 12; ++index) {
+            for (int square=0; square < 64; ++square) {
+                PIECE_SQUARE[index][square]=next();
+            }
+        }
+        BLACK_TO_MOVE=next();
+        // drawn after the older keys so those keep their values
+        var rightKeys=new long[4];
+        for (int right=0; right < 4; ++right) {
+            rightKeys[right]=next();
+        }
+        for (int rights=1; rights < 16; ++rights) {
+            for (int right=0; right < 4; ++right) {
+                if ((rights & (1 << right)) != 0) {
+                    CASTLING[rights]^=rightKeys[right];
+                }
+            }
+        }
+        for (int file=0; file < 8; ++file) {
+            EN_PASSANT_FILE[file]=next();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    // SplitMix64
+    private static long next() {
+        var z=(state+=0x9e3779b97f4a7c15L);
+        z=(z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z=(z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
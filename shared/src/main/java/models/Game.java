@@ -10,8 +10,22 @@ import chess.ChessGame;
  * @param blackUsername Username of the black player
  * @param gameName      Name of the game
  * @param game          ChessGame object
+ * @param version       Number of updates the stored game has had, or ANY_VERSION to update regardless
  */
-public record Game(int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game) {
+public record Game(int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game,
+                   int version) {
+  /**
+   * Version for updates that should apply no matter what the stored game has become
+   */
+  public static final int ANY_VERSION=-1;
+
+  /**
+   * Creates a game record with no known version
+   */
+  public Game(int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game) {
+    this(gameID, whiteUsername, blackUsername, gameName, game, ANY_VERSION);
+  }
+
   /**
    * Creates a game record with only the game ID. Used for database lookups
    *
@@ -0,0 +1,26 @@
+package models;
+
+import java.util.List;
+
+/**
+ * One page of a game listing
+ *
+ * @param games Games on this page, in ID order
+ * @param next  Cursor for the following page (GameQuery.after), or null if this is the last page
+ */
+public record GamePage(List<GameInfo> games, Integer next) {
+  /**
+   * Builds a page from games fetched in ID order. Fetching one more than the limit shows whether another
+   * page follows without a separate count
+   *
+   * @param fetched Up to limit + 1 matching games, in ID order
+   * @param limit   Page size, or 0 if the listing isn't paged
+   */
+  public static GamePage of(List<GameInfo> fetched, int limit) {
+    if (limit <= 0 || fetched.size() <= limit) {
+      return new GamePage(fetched, null);
+    }
+    var games=fetched.subList(0, limit);
+    return new GamePage(games, games.getLast().gameID());
+  }
+}
@@ -0,0 +1,46 @@
+package models;
+
+/**
+ * Filters and cursor for one page of a game listing. Games are listed in ID order
+ *
+ * @param limit      Most games on the page, or 0 for every matching game
+ * @param after      Only games with an ID greater than this; pass the previous page's next cursor
+ * @param openSeats  Only games with at least one seat free
+ * @param player     Only games this username is playing in, or null for any
+ * @param namePrefix Only games whose name starts with this, or null for any
+ */
+public record GameQuery(int limit, int after, boolean openSeats, String player, String namePrefix) {
+  /**
+   * Largest page a single request can ask for
+   */
+  public static final int MAX_LIMIT=500;
+
+  /**
+   * Every game, unfiltered
+   */
+  public static final GameQuery ALL=new GameQuery(0, 0, false, null, null);
+
+  public GameQuery {
+    limit=Math.min(Math.max(limit, 0), MAX_LIMIT);
+    after=Math.max(after, 0);
+    player=player == null || player.isEmpty() ? null : player;
+    namePrefix=namePrefix == null || namePrefix.isEmpty() ? null : namePrefix;
+  }
+
+  /**
+   * @return whether the game passes every filter, ignoring the cursor
+   */
+  public boolean matches(GameInfo game) {
+    if (openSeats && isTaken(game.whiteUsername()) && isTaken(game.blackUsername())) {
+      return false;
+    }
+    if (player != null && !player.equals(game.whiteUsername()) && !player.equals(game.blackUsername())) {
+      return false;
+    }
+    return namePrefix == null || (game.gameName() != null && game.gameName().startsWith(namePrefix));
+  }
+
+  private static boolean isTaken(String username) {
+    return username != null && !username.isEmpty();
+  }
+}
@@ -0,0 +1,12 @@
+package models;
+
+/**
+ * The engine's suggestion for the side to move in a stored game
+ *
+ * @param move  Suggested move in coordinate notation, e.g. "e2e4" or "e7e8q", or null if the game is over
+ * @param score Centipawns from the side to move's point of view
+ * @param depth Deepest search iteration finished before the deadline, in plies
+ * @param nodes Positions searched to find the move, or 0 if it came from the cache
+ */
+public record Hint(String move, int score, int depth, long nodes) {
+}
@@ -0,0 +1,74 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessGameStatusTests {
+    @Test
+    void checkmateAndStalemate() {
+        var foolsMate=ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w - - 1 3");
+        var stalemate=ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+
+        assertEquals(ChessGame.GameStatus.CHECKMATE, foolsMate.status());
+        assertTrue(foolsMate.isInCheckmate(ChessGame.TeamColor.WHITE));
+        assertFalse(foolsMate.isInStalemate(ChessGame.TeamColor.WHITE));
+        assertEquals(ChessGame.GameStatus.STALEMATE, stalemate.status());
+        assertFalse(stalemate.isInCheckmate(ChessGame.TeamColor.BLACK));
+        assertFalse(stalemate.isInStalemate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void statusFollowsMoves() throws InvalidMoveException {
+        var game=ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+        assertEquals(ChessGame.GameStatus.ONGOING, game.status());
+
+        game.makeMove(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1)));
+        assertEquals(ChessGame.GameStatus.CHECK, game.status());
+
+        game.unmakeMove();
+        assertEquals(ChessGame.GameStatus.ONGOING, game.status());
+    }
+
+    @Test
+    void insufficientMaterial() {
+        assertEquals(ChessGame.GameStatus.INSUFFICIENT_MATERIAL, ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w").status());
+        assertEquals(ChessGame.GameStatus.INSUFFICIENT_MATERIAL, ChessGame.fromFen("4k3/8/8/8/8/8/8/2N1K3 w").status());
+        assertEquals(ChessGame.GameStatus.INSUFFICIENT_MATERIAL, ChessGame.fromFen("2b1k3/8/8/8/8/8/8/4KB2 w").status());
+        assertEquals(ChessGame.GameStatus.ONGOING, ChessGame.fromFen("1b2k3/8/8/8/8/8/8/4KB2 w").status());
+        assertEquals(ChessGame.GameStatus.ONGOING, ChessGame.fromFen("4k3/8/8/8/8/8/8/1NN1K3 w").status());
+    }
+
+    @Test
+    void fiftyMoveRule() throws InvalidMoveException {
+        var game=ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 99 80");
+        assertEquals(ChessGame.GameStatus.ONGOING, game.status());
+
+        game.makeMove(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(2, 1)));
+        assertEquals(ChessGame.GameStatus.FIFTY_MOVE_RULE, game.status());
+
+        game.unmakeMove();
+        assertEquals(ChessGame.GameStatus.ONGOING, game.status());
+    }
+
+    @Test
+    void threefoldRepetition() throws InvalidMoveException {
+        var game=new ChessGame();
+        var shuffle=new ChessMove[]{
+                new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6)),
+                new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6)),
+                new ChessMove(ChessPosition.of(3, 6), ChessPosition.of(1, 7)),
+                new ChessMove(ChessPosition.of(6, 6), ChessPosition.of(8, 7)),
+        };
+
+        for (int round=0; round < 2; ++round) {
+            for (var move : shuffle) {
+                assertEquals(ChessGame.GameStatus.ONGOING, game.status());
+                game.makeMove(move);
+            }
+        }
+
+        assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.status());
+        assertTrue(game.status().isOver());
+    }
+}
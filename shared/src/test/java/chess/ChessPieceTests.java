@@ -0,0 +1,34 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessPieceTests {
+    @Test
+    void sharedInstances() {
+        var board=new ChessBoard();
+        board.resetBoard();
+
+        var piece=ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+
+        assertSame(piece, board.getPiece(new ChessPosition(1, 1)));
+        assertSame(piece, board.getPiece(new ChessPosition(1, 8)));
+        assertSame(piece, ChessPiece.deserialize('R'));
+        assertNull(ChessPiece.deserialize('.'));
+    }
+
+    @Test
+    void hashCodeMatchesEquals() {
+        for (var color : ChessGame.TeamColor.values()) {
+            for (var type : ChessPiece.PieceType.values()) {
+                var constructed=new ChessPiece(color, type);
+                var shared=ChessPiece.of(color, type);
+
+                assertEquals(shared, constructed);
+                assertEquals(shared.hashCode(), constructed.hashCode());
+                assertEquals(shared, ChessPiece.deserialize(shared.toString().charAt(0)));
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessPositionTests {
+    @Test
+    void onBoardPositionsAreShared() {
+        for (int row=1; row <= 8; ++row) {
+            for (int col=1; col <= 8; ++col) {
+                var position=ChessPosition.of(row, col);
+
+                assertSame(position, ChessPosition.of(position.getSquare()));
+                assertEquals(new ChessPosition(row, col), position);
+                assertEquals(row, position.getRow());
+                assertEquals(col, position.getColumn());
+            }
+        }
+        assertFalse(ChessPosition.of(0, 1).isOnBoard());
+        assertFalse(ChessPosition.of(1, 9).isOnBoard());
+    }
+
+    @Test
+    void hashesAreDistinct() {
+        var positionHashes=new HashSet<Integer>();
+        var moveHashes=new HashSet<Integer>();
+        for (int from=0; from < 64; ++from) {
+            positionHashes.add(ChessPosition.of(from).hashCode());
+            for (int to=0; to < 64; ++to) {
+                moveHashes.add(new ChessMove(ChessPosition.of(from), ChessPosition.of(to)).hashCode());
+                moveHashes.add(new ChessMove(ChessPosition.of(from), ChessPosition.of(to), ChessPiece.PieceType.QUEEN).hashCode());
+            }
+        }
+
+        assertEquals(64, positionHashes.size());
+        assertEquals(64 * 64 * 2, moveHashes.size());
+    }
+}
@@ -0,0 +1,30 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnPassantMoveTests {
+    @Test
+    void offTurnPawnCannotCaptureOntoPassedSquare() throws InvalidMoveException {
+        var game=ChessGame.fromFen("4k3/8/8/8/3p4/8/3PP3/4K3 w - - 0 1");
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5)));
+
+        // e3 is empty and belongs to black's capture; white's d2 pawn attacks it but has nothing to take
+        var whiteMoves=game.validMoves(ChessPosition.of(2, 4));
+
+        assertFalse(whiteMoves.contains(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(3, 5))));
+        // d4 is blocked, so only the single step is left
+        assertEquals(1, whiteMoves.size());
+    }
+
+    @Test
+    void passedPawnCanBeTaken() throws InvalidMoveException {
+        var game=ChessGame.fromFen("4k3/8/8/8/3p4/8/3PP3/4K3 w - - 0 1");
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5)));
+
+        var blackMoves=game.validMoves(ChessPosition.of(4, 4));
+
+        assertTrue(blackMoves.contains(new ChessMove(ChessPosition.of(4, 4), ChessPosition.of(3, 5))));
+    }
+}
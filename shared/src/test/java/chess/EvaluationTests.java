@@ -0,0 +1,59 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationTests {
+    @Test
+    void incrementalTermsMatchRebuiltBoard() {
+        for (var reference : Perft.REFERENCE_POSITIONS) {
+            var game=ChessGame.fromFen(reference.fen());
+            assertMatchesRebuilt(game, 3, reference.name());
+        }
+    }
+
+    @Test
+    void startingPositionIsLevel() {
+        var game=new ChessGame();
+
+        assertEquals(0, Evaluation.evaluate(game));
+        assertEquals(Evaluation.MAX_PHASE, game.board.phase);
+    }
+
+    @Test
+    void mirroredPositionsScoreTheSame() {
+        var white=ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        var black=ChessGame.fromFen("r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b KQkq - 0 1");
+
+        assertEquals(Evaluation.evaluate(white), Evaluation.evaluate(black));
+    }
+
+    @Test
+    void rewardsMaterialAndPawnStructure() {
+        var extraKnight=ChessGame.fromFen("4k3/pppp4/8/8/8/8/PPPP4/3NK3 w - - 0 1");
+        var passedPawn=ChessGame.fromFen("4k3/8/8/3P4/8/8/8/4K3 w - - 0 1");
+        var blockedPawn=ChessGame.fromFen("4k3/3p4/8/3P4/8/8/8/4K3 w - - 0 1");
+
+        assertTrue(Evaluation.evaluate(extraKnight) > 250);
+        assertTrue(Evaluation.evaluate(passedPawn) > Evaluation.evaluate(blockedPawn) + 100);
+    }
+
+    // every position reached must hold the same sums as the board built from scratch
+    private static void assertMatchesRebuilt(ChessGame game, int depth, String name) {
+        var rebuilt=ChessBoard.deserialize(game.board.serialize());
+        assertEquals(rebuilt.middlegame, game.board.middlegame, name);
+        assertEquals(rebuilt.endgame, game.board.endgame, name);
+        assertEquals(rebuilt.phase, game.board.phase, name);
+        if (depth == 0) {
+            return;
+        }
+        var moves=new int[MoveCalculator.MAX_MOVES];
+        var count=game.generateAllMoves(moves, 0);
+        for (int i=0; i < count; ++i) {
+            game.makeMove(moves[i]);
+            assertMatchesRebuilt(game, depth - 1, name);
+            game.unmakeMove();
+        }
+    }
+}
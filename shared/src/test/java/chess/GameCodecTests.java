@@ -0,0 +1,68 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameCodecTests {
+    @Test
+    void roundTripsReferencePositions() {
+        for (var reference : Perft.REFERENCE_POSITIONS) {
+            var game=ChessGame.fromFen(reference.fen());
+
+            var bytes=GameCodec.encode(game);
+            var decoded=GameCodec.decode(bytes);
+
+            assertEquals(GameCodec.LENGTH, bytes.length);
+            assertEquals(game, decoded, reference.name());
+            assertEquals(game.getTeamTurn(), decoded.getTeamTurn(), reference.name());
+            assertEquals(game.positionKey(), decoded.positionKey(), reference.name());
+        }
+    }
+
+    @Test
+    void matchesTextSerialization() {
+        var game=new ChessGame();
+        game.getBoard().resetBoard();
+
+        var decoded=GameCodec.decode(GameCodec.encode(game));
+
+        assertEquals(game.serialize(), decoded.serialize());
+        assertEquals(game.getBoard(), ChessBoard.deserialize(game.serialize()));
+    }
+
+    @Test
+    void roundTripsCastlingAndEnPassant() {
+        var game=ChessGame.fromFen("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 1");
+
+        var decoded=GameCodec.decode(GameCodec.encode(game));
+        var deserialized=ChessGame.deserialize(game.serialize(), game.getTeamTurn());
+
+        assertEquals(game, decoded);
+        assertEquals(game, deserialized);
+        assertEquals(game.positionKey(), deserialized.positionKey());
+        assertTrue(game.serialize().endsWith(" Kq d6"));
+    }
+
+    @Test
+    void decodesFormatOneWithBoardCastlingRights() {
+        var game=ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K3 b - - 0 1");
+        var bytes=GameCodec.encode(game);
+        bytes[0]=1;
+        bytes[33]&=1;
+        bytes[34]=(byte) 0xff;
+
+        var decoded=GameCodec.decode(bytes);
+
+        assertEquals(ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K3 b Qkq - 0 1"), decoded);
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        var bytes=GameCodec.encode(new ChessGame());
+        bytes[0]=(byte) (GameCodec.FORMAT_VERSION + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(bytes));
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(new byte[3]));
+    }
+}
@@ -0,0 +1,110 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MakeUnmakeTests {
+    private static final String BOARD="""
+            |r| | | |k| | | |
+            | |P| | | | | | |
+            | | | | | | | | |
+            | | | |p| | | | |
+            | | | | |P| | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | |K| | | |
+            """;
+
+    @Test
+    void unmakeRestoresCapture() throws InvalidMoveException {
+        assertRestored(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4)));
+    }
+
+    @Test
+    void unmakeRestoresPromotion() throws InvalidMoveException {
+        assertRestored(new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 2), ChessPiece.PieceType.QUEEN));
+    }
+
+    @Test
+    void unmakeRestoresCapturingPromotion() throws InvalidMoveException {
+        assertRestored(new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 1), ChessPiece.PieceType.KNIGHT));
+    }
+
+    @Test
+    void unmakeRestoresSeveralMovesInOrder() throws InvalidMoveException {
+        var game=load(BOARD);
+        var moves=new ChessMove[]{
+            new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4)),
+            new ChessMove(new ChessPosition(8, 1), new ChessPosition(7, 1)),
+            new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 2), ChessPiece.PieceType.ROOK)
+        };
+        var boards=new ArrayList<String>();
+        var turns=new ArrayList<ChessGame.TeamColor>();
+        for (var move : moves) {
+            boards.add(game.serialize());
+            turns.add(game.getTeamTurn());
+            game.makeMove(move);
+        }
+        assertEquals(3, game.getMoveCount());
+
+        for (int undone=1; undone <= moves.length; ++undone) {
+            game.unmakeMove();
+            assertEquals(boards.get(moves.length - undone), game.serialize());
+            assertEquals(turns.get(moves.length - undone), game.getTeamTurn());
+            assertEquals(moves.length - undone, game.getMoveCount());
+        }
+        assertEquals(load(BOARD), game);
+        assertThrows(IllegalStateException.class, game::unmakeMove);
+    }
+
+    @Test
+    void rejectedMoveLeavesNothingToUndo() {
+        // the rook covers the whole second rank
+        var board="""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |r| | | | |
+                | | | | |K| | | |
+                """;
+        var game=load(board);
+
+        assertThrows(InvalidMoveException.class,
+                () -> game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5))));
+
+        assertPosition(load(board), 0, game);
+    }
+
+    private static ChessGame load(String board) {
+        var game=new ChessGame();
+        game.setBoard(TestUtilities.loadBoard(board));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        return game;
+    }
+
+    private static void assertRestored(ChessMove move) throws InvalidMoveException {
+        var game=load(BOARD);
+        var before=load(BOARD);
+
+        game.makeMove(move);
+        assertEquals(1, game.getMoveCount());
+        assertNotEquals(before.getBoard(), game.getBoard());
+
+        game.unmakeMove();
+        assertPosition(before, 0, game);
+    }
+
+    private static void assertPosition(ChessGame expected, int moveCount, ChessGame actual) {
+        assertEquals(expected.getBoard(), actual.getBoard());
+        assertEquals(expected.getTeamTurn(), actual.getTeamTurn());
+        assertEquals(moveCount, actual.getMoveCount());
+        assertEquals(expected, actual);
+    }
+}
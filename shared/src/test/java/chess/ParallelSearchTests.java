@@ -0,0 +1,66 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSearchTests {
+    @Test
+    void findsMateWithHelpers() {
+        var game=ChessGame.fromFen("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4");
+
+        try (var search=new ParallelSearch(4, new TranspositionTable(4))) {
+            var result=search.search(game, Search.Limits.depth(3));
+
+            assertEquals(new ChessMove(ChessPosition.of(5, 8), ChessPosition.of(7, 6)), result.move());
+            assertEquals(Search.MATE - 1, result.score());
+        }
+    }
+
+    @Test
+    void leavesGameUnchanged() {
+        var game=ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(4).fen());
+        var serialized=game.serialize();
+
+        try (var search=new ParallelSearch(3, new TranspositionTable(4))) {
+            var result=search.search(game, Search.Limits.depth(4));
+
+            assertNotNull(result.move());
+            assertEquals(4, result.depth());
+            assertTrue(game.validMoves(result.move().getStartPosition()).contains(result.move()));
+        }
+        assertEquals(serialized, game.serialize());
+        assertEquals(0, game.getMoveCount());
+    }
+
+    @Test
+    void countsEveryThread() {
+        var game=ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(4).fen());
+        var limits=Search.Limits.nodes(5_000);
+
+        // the main thread stops at exactly its budget, and every helper visits at least one node before it
+        // sees the stop flag, so only a total over all threads can exceed the budget
+        try (var single=new ParallelSearch(1, new TranspositionTable(4))) {
+            assertEquals(5_000, single.search(game, limits).nodes());
+        }
+        try (var search=new ParallelSearch(3, new TranspositionTable(4))) {
+            assertTrue(search.search(game, limits).nodes() > 5_000);
+        }
+    }
+
+    @Test
+    void copyIsIndependent() throws InvalidMoveException {
+        var game=new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5)));
+
+        var copy=game.copy();
+        copy.makeMove(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5)));
+
+        assertEquals(1, game.getMoveCount());
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertNull(game.getBoard().getPiece(ChessPosition.of(5, 5)));
+        copy.unmakeMove();
+        copy.unmakeMove();
+        assertEquals(new ChessGame(), copy);
+    }
+}
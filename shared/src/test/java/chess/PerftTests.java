@@ -0,0 +1,58 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTests {
+    // keeps the suite fast; deeper counts are covered by the perft benchmark
+    private static final long MAX_NODES=200_000;
+
+    static List<Arguments> referenceCounts() {
+        var arguments=new ArrayList<Arguments>();
+        for (var reference : Perft.REFERENCE_POSITIONS) {
+            for (int depth=1; depth <= reference.nodes().length; ++depth) {
+                if (reference.nodes()[depth - 1] <= MAX_NODES) {
+                    arguments.add(Arguments.of(reference.name(), reference.fen(), depth, reference.nodes()[depth - 1]));
+                }
+            }
+        }
+        return arguments;
+    }
+
+    @ParameterizedTest(name="{0} depth {2}")
+    @MethodSource("referenceCounts")
+    void matchesReferenceCount(String name, String fen, int depth, long expected) {
+        assertEquals(expected, Perft.perft(ChessGame.fromFen(fen), depth));
+    }
+
+    @Test
+    void leavesPositionUnchanged() {
+        var game=ChessGame.fromFen(Perft.REFERENCE_POSITIONS.getFirst().fen());
+        var key=game.positionKey();
+        var board=game.getBoard().serialize();
+
+        Perft.perft(game, 3);
+
+        assertEquals(key, game.positionKey());
+        assertEquals(board, game.getBoard().serialize());
+        assertEquals(0, game.getMoveCount());
+    }
+
+    @Test
+    void divideSumsToCount() {
+        var game=new ChessGame();
+        var perft=new Perft(game, 3);
+
+        var divide=perft.divide(3);
+
+        assertEquals(20, divide.size());
+        assertEquals(perft.count(3), divide.values().stream().mapToLong(Long::longValue).sum());
+    }
+}
@@ -0,0 +1,75 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionKeyTests {
+    private static final String KNIGHTS_OUT="""
+            |r| |b|q|k|b| |r|
+            |p|p|p|p|p|p|p|p|
+            | | |n| | |n| | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | |N| | |N| | |
+            |P|P|P|P|P|P|P|P|
+            |R| |B|Q|K|B| |R|
+            """;
+
+    @Test
+    void transposedMoveOrdersShareAKey() throws InvalidMoveException {
+        var kingsideFirst=new ChessGame();
+        play(kingsideFirst, "g1f3", "g8f6", "b1c3", "b8c6");
+        var queensideFirst=new ChessGame();
+        play(queensideFirst, "b1c3", "b8c6", "g1f3", "g8f6");
+        var fresh=load(KNIGHTS_OUT, ChessGame.TeamColor.WHITE);
+
+        assertEquals(fresh.positionKey(), kingsideFirst.positionKey());
+        assertEquals(fresh.positionKey(), queensideFirst.positionKey());
+        assertEquals(fresh, kingsideFirst);
+        assertEquals(fresh, queensideFirst);
+        assertEquals(fresh.hashCode(), kingsideFirst.hashCode());
+        assertEquals(fresh.hashCode(), queensideFirst.hashCode());
+    }
+
+    @Test
+    void unmakeRestoresKey() throws InvalidMoveException {
+        var game=load(KNIGHTS_OUT, ChessGame.TeamColor.WHITE);
+        var key=game.positionKey();
+
+        play(game, "e2e4", "d7d5", "e4d5", "f6d5");
+        assertNotEquals(key, game.positionKey());
+        for (int i=0; i < 4; ++i) {
+            game.unmakeMove();
+        }
+
+        assertEquals(key, game.positionKey());
+        assertEquals(load(KNIGHTS_OUT, ChessGame.TeamColor.WHITE).positionKey(), game.positionKey());
+    }
+
+    @Test
+    void sideToMoveChangesKey() {
+        var white=load(KNIGHTS_OUT, ChessGame.TeamColor.WHITE);
+        var black=load(KNIGHTS_OUT, ChessGame.TeamColor.BLACK);
+
+        assertEquals(white.getBoard(), black.getBoard());
+        assertNotEquals(white.positionKey(), black.positionKey());
+        assertNotEquals(white, black);
+    }
+
+    private static ChessGame load(String board, ChessGame.TeamColor turn) {
+        var game=new ChessGame();
+        game.setBoard(TestUtilities.loadBoard(board));
+        game.setTeamTurn(turn);
+        return game;
+    }
+
+    private static void play(ChessGame game, String... moves) throws InvalidMoveException {
+        for (var move : moves) {
+            var from=new ChessPosition(move.charAt(1) - '0', move.charAt(0) - 'a' + 1);
+            var to=new ChessPosition(move.charAt(3) - '0', move.charAt(2) - 'a' + 1);
+            game.makeMove(new ChessMove(from, to));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTests {
+    @Test
+    void findsMateInOne() {
+        // Qh5xf7 is mate
+        var game=ChessGame.fromFen("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4");
+
+        var result=new Search(game).search(Search.Limits.depth(3));
+
+        assertEquals(new ChessMove(ChessPosition.of(5, 8), ChessPosition.of(7, 6)), result.move());
+        assertEquals(Search.MATE - 1, result.score());
+        assertTrue(Search.isMateScore(result.score()));
+    }
+
+    @Test
+    void takesHangingQueen() {
+        var game=ChessGame.fromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+
+        var result=new Search(game).search(Search.Limits.depth(2));
+
+        assertEquals(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(5, 4)), result.move());
+        assertTrue(result.score() > 0);
+    }
+
+    @Test
+    void leavesGameUnchanged() {
+        var game=ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(4).fen());
+        var key=game.positionKey();
+        var serialized=game.serialize();
+
+        new Search(game).search(Search.Limits.depth(3));
+
+        assertEquals(key, game.positionKey());
+        assertEquals(serialized, game.serialize());
+        assertEquals(0, game.getMoveCount());
+    }
+
+    @Test
+    void stopsAtNodeBudget() {
+        var game=ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(4).fen());
+
+        var result=new Search(game).search(Search.Limits.nodes(5_000));
+
+        assertNotNull(result.move());
+        assertTrue(result.nodes() <= 5_000);
+        assertTrue(game.validMoves(result.move().getStartPosition()).contains(result.move()));
+    }
+
+    @Test
+    void returnsLegalMoveWhenStoppedAtOnce() {
+        var game=ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(4).fen());
+
+        var result=new Search(game).search(Search.Limits.nodes(1));
+
+        assertNotNull(result.move());
+        assertEquals(0, result.depth());
+        assertTrue(game.validMoves(result.move().getStartPosition()).contains(result.move()));
+    }
+
+    @Test
+    void noMoveWhenGameIsOver() {
+        var game=ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+
+        var result=new Search(game).search(Search.Limits.depth(4));
+
+        assertNull(result.move());
+        assertEquals(Search.DRAW, result.score());
+    }
+}
@@ -0,0 +1,87 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTests {
+    @Test
+    void storesAndProbes() {
+        var table=new TranspositionTable(1);
+        var move=PackedMove.of(12, 28);
+
+        table.store(42L, move, -Search.MATE + 3, 7, TranspositionTable.BOUND_LOWER);
+        var entry=table.probe(42L);
+
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(-Search.MATE + 3, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.bound(entry));
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(43L));
+        assertEquals(0.5, table.hitRate());
+    }
+
+    @Test
+    void sizedByMegabytes() {
+        assertEquals(1 << 16, new TranspositionTable(1).capacity());
+        assertEquals(1 << 18, new TranspositionTable(5).capacity());
+        assertEquals(4, new TranspositionTable(0).capacity());
+    }
+
+    @Test
+    void keepsDeeperEntriesOfTheCurrentSearch() {
+        var table=new TranspositionTable(0);
+        for (int key=1; key <= 4; ++key) {
+            table.store(key * 4L, PackedMove.NONE, 0, key, TranspositionTable.BOUND_EXACT);
+        }
+
+        table.store(20L, PackedMove.NONE, 0, 9, TranspositionTable.BOUND_EXACT);
+
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(4L));
+        assertNotEquals(TranspositionTable.NO_ENTRY, table.probe(8L));
+        assertNotEquals(TranspositionTable.NO_ENTRY, table.probe(20L));
+    }
+
+    @Test
+    void replacesEntriesFromOlderSearchesFirst() {
+        var table=new TranspositionTable(0);
+        table.store(4L, PackedMove.NONE, 0, 20, TranspositionTable.BOUND_EXACT);
+        table.newSearch();
+        table.newSearch();
+        table.newSearch();
+        for (int key=2; key <= 4; ++key) {
+            table.store(key * 4L, PackedMove.NONE, 0, 2, TranspositionTable.BOUND_EXACT);
+        }
+
+        table.store(20L, PackedMove.NONE, 0, 1, TranspositionTable.BOUND_EXACT);
+
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(4L));
+    }
+
+    @Test
+    void updatingAPositionKeepsItsMove() {
+        var table=new TranspositionTable(1);
+        var move=PackedMove.of(6, 21);
+        table.store(42L, move, 10, 3, TranspositionTable.BOUND_EXACT);
+
+        table.store(42L, PackedMove.NONE, -50, 4, TranspositionTable.BOUND_UPPER);
+        var entry=table.probe(42L);
+
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(-50, TranspositionTable.score(entry));
+        assertEquals(4, TranspositionTable.depth(entry));
+    }
+
+    @Test
+    void searchReusesTable() {
+        var game=ChessGame.fromFen(Perft.REFERENCE_POSITIONS.get(4).fen());
+        var search=new Search(game, new TranspositionTable(4));
+
+        var first=search.search(Search.Limits.depth(4));
+        var second=search.search(Search.Limits.depth(4));
+
+        assertTrue(second.nodes() < first.nodes());
+        assertEquals(first.move(), second.move());
+        assertTrue(search.getTable().hits() > 0);
+    }
+}